@@ -0,0 +1,25 @@
+#!/bin/sh
+# CDS(Class Data Sharing) 아카이브가 없으면 먼저 학습 실행(부팅 + 예열 후 종료)으로 동적 아카이브를 만들고,
+# 이후 실행은 그 아카이브로 클래스 로딩/검증을 건너뛴다. 아카이브는 컨테이너를 다시 만들 때까지 재사용된다.
+# CDS_ENABLED=false로 끄거나, 학습 실행이 실패하면 아카이브 없이 그대로 부팅한다.
+set -e
+
+CLASSPATH="/app/app.jar:/app/lib/*"
+MAIN_CLASS=chung.concurrency.ConcurrencyApplication
+ARCHIVE="${CDS_ARCHIVE:-/app/cds/app.jsa}"
+
+if [ "${CDS_ENABLED:-true}" = "true" ]; then
+  if [ ! -f "$ARCHIVE" ]; then
+    mkdir -p "$(dirname "$ARCHIVE")"
+    # 학습 실행은 임시 포트를 쓰고 RESP 서버 대신 메모리 락 백엔드로 예열한다(내장 서버를 띄우지 않거나 다른 인스턴스의 서버를
+    # 가리키는 설정이면 예열할 락 서버가 없다). 예열 단계 실패는 경고만 남긴다.
+    java -XX:ArchiveClassesAtExit="$ARCHIVE" $JAVA_OPTS -cp "$CLASSPATH" "$MAIN_CLASS" \
+      --warmup.enabled=true --warmup.exit-after=true --server.port=0 --lock.backend=memory --lock.resp.embedded-server=false \
+      || echo "CDS training run failed, starting without archive"
+  fi
+  if [ -f "$ARCHIVE" ]; then
+    exec java -XX:SharedArchiveFile="$ARCHIVE" $JAVA_OPTS -cp "$CLASSPATH" "$MAIN_CLASS" "$@"
+  fi
+fi
+
+exec java $JAVA_OPTS -cp "$CLASSPATH" "$MAIN_CLASS" "$@"
@@ -0,0 +1,3 @@
+-- 레플리카가 binlog를 받아갈 계정
+CREATE USER IF NOT EXISTS 'repl'@'%' IDENTIFIED BY 'replpass';
+GRANT REPLICATION SLAVE ON *.* TO 'repl'@'%';
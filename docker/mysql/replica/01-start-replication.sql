@@ -0,0 +1,11 @@
+-- GTID auto position으로 primary의 전체 binlog(appdb, appuser 생성 포함)를 받아온다.
+CHANGE REPLICATION SOURCE TO
+    SOURCE_HOST = 'db',
+    SOURCE_PORT = 3306,
+    SOURCE_USER = 'repl',
+    SOURCE_PASSWORD = 'replpass',
+    SOURCE_AUTO_POSITION = 1,
+    GET_SOURCE_PUBLIC_KEY = 1;
+START REPLICA;
+-- 애플리케이션 계정이 실수로라도 레플리카에 쓰지 못하게 한다. 재시작 후에도 유지된다.
+SET PERSIST super_read_only = ON;
@@ -0,0 +1,74 @@
+package chung.concurrency.lock;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 짧게 쓰고 버리는 락 key가 매우 많을 때 acquire/release 한 쌍의 처리량과 할당량을 비교한다.
+ * legacy는 이전 구현(String key + UUID token + ConcurrentHashMap 두 개)을 그대로 재현한 것이다.
+ *
+ * <pre>./gradlew jmh</pre> (build.gradle에서 -prof gc가 기본 활성화되어 gc.alloc.rate.norm으로 비교)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class LockTableBenchmark {
+
+    private static final int KEY_SPACE = 500_000;
+    private static final long LEASE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final FakeRedisLock shardedTable = new FakeRedisLock();
+    private final AtomicLong ownerTokenSequence = new AtomicLong();
+
+    private final Map<String, String> legacyLockStore = new ConcurrentHashMap<>();
+    private final Map<String, LegacyLease> legacyLeases = new ConcurrentHashMap<>();
+
+    @Benchmark
+    public boolean sharded() {
+        long key = ThreadLocalRandom.current().nextLong(KEY_SPACE);
+        long ownerToken = ownerTokenSequence.incrementAndGet();
+        if (shardedTable.tryLock(key, ownerToken, System.nanoTime() + LEASE_NANOS) == LockBackend.NOT_ACQUIRED) {
+            return false;
+        }
+        return shardedTable.unlock(key, ownerToken);
+    }
+
+    @Benchmark
+    public boolean legacy() {
+        String key = "point:" + ThreadLocalRandom.current().nextLong(KEY_SPACE);
+        String ownerToken = UUID.randomUUID().toString();
+        if (legacyLockStore.putIfAbsent(key, "LOCKED") != null) {
+            return false;
+        }
+        legacyLeases.put(key, new LegacyLease(ownerToken, System.nanoTime() + LEASE_NANOS));
+        LegacyLease lease = legacyLeases.get(key);
+        if (lease != null && lease.ownerToken().equals(ownerToken)) {
+            legacyLeases.remove(key);
+            legacyLockStore.remove(key);
+            return true;
+        }
+        return false;
+    }
+
+    private record LegacyLease(String ownerToken, long expiryNanoTime) {
+    }
+}
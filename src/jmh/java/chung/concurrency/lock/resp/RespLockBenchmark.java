@@ -0,0 +1,77 @@
+package chung.concurrency.lock.resp;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import chung.concurrency.lock.LockBackend;
+
+/**
+ * TCP(loopback) 위에서 RESP 락 한 쌍(획득 EVAL → 해제 EVAL)의 왕복 지연과 처리량을 잰다.
+ * 락 서버를 별도 프로세스로 띄웠다면 -Dlock.resp.host / -Dlock.resp.port로 그쪽을 가리킨다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.SampleTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class RespLockBenchmark {
+
+    private static final int KEY_SPACE = 10_000;
+    private static final Duration LEASE = Duration.ofSeconds(1);
+
+    private final AtomicLong ownerTokenSequence = new AtomicLong();
+    private RespLockServer server;
+    private RespLockBackend backend;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String host = System.getProperty("lock.resp.host");
+        int port;
+        if (host == null) {
+            server = new RespLockServer(0);
+            server.start();
+            host = "localhost";
+            port = server.getPort();
+        } else {
+            port = Integer.getInteger("lock.resp.port", 6380);
+        }
+        backend = new RespLockBackend(host, port);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        backend.close();
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Benchmark
+    public boolean lockAndUnlock() {
+        long key = ThreadLocalRandom.current().nextLong(KEY_SPACE);
+        long ownerToken = ownerTokenSequence.incrementAndGet();
+        if (backend.tryAcquire(key, ownerToken, LEASE) == LockBackend.NOT_ACQUIRED) {
+            return false;
+        }
+        return backend.unlock(key, ownerToken);
+    }
+}
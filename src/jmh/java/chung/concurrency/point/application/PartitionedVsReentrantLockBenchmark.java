@@ -0,0 +1,123 @@
+package chung.concurrency.point.application;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import chung.concurrency.point.domain.Point;
+
+/**
+ * 64개 생산자 스레드가 동시에 충전할 때 파티션 단일 writer(배치 커밋)와 전역 ReentrantLock(요청마다 커밋)의 처리량을 비교한다.
+ * 두 전략은 같은 메모리 저장소를 쓰고, 커밋 한 번의 비용은 DB 왕복 대신 {@code commitMicros}만큼 잠드는 것으로 흉내 낸다.
+ * {@code commitMicros=0}이면 조정 비용(큐 왕복 대 락 대기)만, 0보다 크면 커밋 수를 줄인 배치의 효과까지 드러난다.
+ *
+ * <pre>./gradlew jmh -Pjmh.includes=PartitionedVsReentrantLockBenchmark</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(64)
+public class PartitionedVsReentrantLockBenchmark {
+
+    private static final long AMOUNT = 100L;
+
+    @Param({"1", "64"})
+    private int pointCount;
+
+    @Param({"0", "100"})
+    private long commitMicros;
+
+    private PointPartitionedExecutor partitionedExecutor;
+    private PointReentrantLockFacade reentrantLockFacade;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        InMemoryPointService store = new InMemoryPointService(pointCount, TimeUnit.MICROSECONDS.toNanos(commitMicros));
+        partitionedExecutor = new PointPartitionedExecutor(store);
+        reentrantLockFacade = new PointReentrantLockFacade(store);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        partitionedExecutor.shutdown();
+    }
+
+    @Benchmark
+    public Point partitioned() {
+        return partitionedExecutor.charge(nextPointId(), AMOUNT);
+    }
+
+    @Benchmark
+    public Point reentrant() {
+        return reentrantLockFacade.charge(nextPointId(), AMOUNT);
+    }
+
+    private long nextPointId() {
+        return ThreadLocalRandom.current().nextLong(pointCount) + 1;
+    }
+
+    /**
+     * DB 대신 메모리 맵에 쓰는 PointService. 호출 한 번(charge 또는 chargeAll)을 커밋 한 번으로 보고 그 비용만큼 잠든다.
+     * 두 전략 모두 한 포인트에 한 writer만 들어오므로 Point를 그대로 고친다.
+     */
+    private static final class InMemoryPointService extends PointService {
+
+        private final Map<Long, Point> points = new ConcurrentHashMap<>();
+        private final long commitNanos;
+
+        private InMemoryPointService(int pointCount, long commitNanos) {
+            super(null, null);
+            for (long pointId = 1; pointId <= pointCount; pointId++) {
+                points.put(pointId, new Point(pointId, 0L));
+            }
+            this.commitNanos = commitNanos;
+        }
+
+        @Override
+        public Point charge(Long pointId, long amount) {
+            Point point = points.get(pointId);
+            point.setBalance(point.getBalance() + amount);
+            commit();
+            return point;
+        }
+
+        @Override
+        public Map<Long, Point> chargeAll(Map<Long, Long> amountsByPointId) {
+            Map<Long, Point> charged = new LinkedHashMap<>();
+            amountsByPointId.forEach((pointId, amount) -> {
+                Point point = points.get(pointId);
+                point.setBalance(point.getBalance() + amount);
+                charged.put(pointId, point);
+            });
+            commit();
+            return charged;
+        }
+
+        private void commit() {
+            if (commitNanos > 0) {
+                LockSupport.parkNanos(commitNanos);
+            }
+        }
+    }
+}
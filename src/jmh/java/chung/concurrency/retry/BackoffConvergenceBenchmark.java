@@ -0,0 +1,131 @@
+package chung.concurrency.retry;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import chung.concurrency.lock.FakeRedisLock;
+import chung.concurrency.lock.LockBackend;
+import chung.concurrency.lock.RedisLockExecutor;
+
+/**
+ * 100명이 같은 key의 락을 동시에 요청했을 때 모두 한 번씩 임계 구역을 통과하기까지 걸리는 시간(수렴 시간)을 정책별로 비교한다.
+ * 실제 기본값(20~200ms)을 1/20로 줄인 1~10ms 범위와 1ms 임계 구역을 쓴다.
+ * 지터 없는 exponential은 대기자들이 같은 박자로 깨어나 획득 시도가 몰리는 것을 보여주기 위한 기준선이다.
+ *
+ * <pre>./gradlew jmh -Pjmh.includes=BackoffConvergenceBenchmark</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+public class BackoffConvergenceBenchmark {
+
+    private static final int WRITERS = 100;
+    private static final long KEY = 1L;
+    private static final Duration BASE = Duration.ofMillis(1L);
+    private static final Duration MAX = Duration.ofMillis(10L);
+    private static final long CRITICAL_SECTION_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final Duration LEASE = Duration.ofSeconds(10L);
+    private static final Duration WAIT_TIMEOUT = Duration.ofSeconds(60L);
+
+    @Param({"exponential", "fullJitter", "decorrelatedJitter", "adaptive"})
+    private String policy;
+
+    private final FakeRedisLock lockTable = new FakeRedisLock();
+    private final AtomicLong acquireAttempts = new AtomicLong();
+    private long invocations;
+    private ExecutorService writers;
+    private RedisLockExecutor lockExecutor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        writers = Executors.newFixedThreadPool(WRITERS);
+        lockExecutor = new RedisLockExecutor(new CountingLockBackend(), policyOf(policy));
+    }
+
+    @TearDown(Level.Invocation)
+    public void reapLeases() {
+        lockTable.reapExpired(System.nanoTime() + LEASE.toNanos());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        writers.shutdownNow();
+        System.out.printf("%n[backoff] policy=%s acquireAttempts/writer=%.1f%n",
+            policy, (double) acquireAttempts.get() / WRITERS / invocations);
+    }
+
+    @Benchmark
+    public void hundredCollidingWriters() throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(WRITERS);
+        for (int i = 0; i < WRITERS; i++) {
+            writers.execute(() -> {
+                try {
+                    start.await();
+                    lockExecutor.executeWithLock(KEY, () -> {
+                        LockSupport.parkNanos(CRITICAL_SECTION_NANOS);
+                        return null;
+                    }, LEASE, WAIT_TIMEOUT);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        done.await();
+        invocations++;
+    }
+
+    private static BackoffPolicy policyOf(String name) {
+        return switch (name) {
+            case "exponential" -> BackoffPolicy.exponential(BASE, MAX);
+            case "fullJitter" -> BackoffPolicy.fullJitter(BASE, MAX);
+            case "decorrelatedJitter" -> BackoffPolicy.decorrelatedJitter(BASE, MAX);
+            case "adaptive" -> BackoffPolicy.adaptive(BASE, MAX);
+            default -> throw new IllegalArgumentException("unknown policy: " + name);
+        };
+    }
+
+    private final class CountingLockBackend implements LockBackend {
+
+        @Override
+        public long tryAcquire(long key, long ownerToken, Duration leaseDuration) {
+            acquireAttempts.incrementAndGet();
+            return lockTable.tryAcquire(key, ownerToken, leaseDuration);
+        }
+
+        @Override
+        public boolean unlock(long key, long ownerToken) {
+            return lockTable.unlock(key, ownerToken);
+        }
+
+        @Override
+        public boolean reclaimIfExpired(long key) {
+            return lockTable.reclaimIfExpired(key);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package chung.concurrency.contention;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * 경합 종류별 JFR 커스텀 이벤트. JFR 녹화(-XX:StartFlightRecording 또는 jcmd JFR.start)가 켜져 있을 때만 기록된다.
+ */
+final class ContentionJfrEvents {
+
+    private ContentionJfrEvents() {
+    }
+
+    static void commit(ContentionKind kind, long key, long waitNanos) {
+        ContentionEvent event = switch (kind) {
+            case LOCK_WAIT -> new LockWait();
+            case LEASE_RECLAIM -> new LeaseReclaim();
+            case OPTIMISTIC_CONFLICT -> new OptimisticConflict();
+        };
+        if (!event.isEnabled()) {
+            return;
+        }
+        event.pointId = key;
+        event.waitNanos = waitNanos;
+        event.commit();
+    }
+
+    @Category({"Concurrency", "Point"})
+    abstract static class ContentionEvent extends Event {
+
+        @Label("Point Id")
+        long pointId;
+
+        @Label("Wait")
+        @Timespan(Timespan.NANOSECONDS)
+        long waitNanos;
+    }
+
+    @Name("chung.concurrency.LockWait")
+    @Label("Lock Wait")
+    static final class LockWait extends ContentionEvent {
+    }
+
+    @Name("chung.concurrency.LeaseReclaim")
+    @Label("Lease Reclaim")
+    static final class LeaseReclaim extends ContentionEvent {
+    }
+
+    @Name("chung.concurrency.OptimisticConflict")
+    @Label("Optimistic Conflict")
+    static final class OptimisticConflict extends ContentionEvent {
+    }
+}
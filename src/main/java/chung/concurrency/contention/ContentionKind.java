@@ -0,0 +1,10 @@
+package chung.concurrency.contention;
+
+public enum ContentionKind {
+    /** RedisLockExecutor에서 첫 시도에 락을 얻지 못하고 기다린 경우 */
+    LOCK_WAIT,
+    /** 만료된 lease를 대기자가 강제로 회수한 경우 */
+    LEASE_RECLAIM,
+    /** 낙관적 락 version 충돌 */
+    OPTIMISTIC_CONFLICT
+}
@@ -0,0 +1,16 @@
+package chung.concurrency.contention;
+
+/**
+ * 락 대기/충돌이 어느 key에서 얼마나 발생했는지 받는 SPI. 호출 경로에 있으므로 구현은 가벼워야 한다.
+ */
+@FunctionalInterface
+public interface ContentionRecorder {
+
+    ContentionRecorder NOOP = (kind, key, waitNanos) -> {
+    };
+
+    /**
+     * @param waitNanos 이 경합으로 잃은 시간(락 대기, 실패한 시도). 없으면 0
+     */
+    void record(ContentionKind kind, long key, long waitNanos);
+}
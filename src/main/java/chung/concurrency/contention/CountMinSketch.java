@@ -0,0 +1,59 @@
+package chung.concurrency.contention;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * key별 누적값을 고정 메모리(depth × width)로 근사하는 Count-Min sketch. 추정값은 실제보다 작지 않다.
+ * 행마다 다른 seed로 섞은 해시를 쓰고, 모든 갱신은 락 없는 원자적 덧셈이다.
+ */
+final class CountMinSketch {
+
+    private final int depth;
+    private final int width;
+    private final int mask;
+    private final long[] seeds;
+    private final AtomicLongArray counters;
+
+    CountMinSketch(int depth, int width) {
+        if (Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("width must be a power of two: " + width);
+        }
+        this.depth = depth;
+        this.width = width;
+        this.mask = width - 1;
+        this.seeds = new long[depth];
+        for (int row = 0; row < depth; row++) {
+            seeds[row] = 0x9E3779B97F4A7C15L * (row + 1) + 0x632BE59BD9B4E019L;
+        }
+        this.counters = new AtomicLongArray(depth * width);
+    }
+
+    void add(long key, long delta) {
+        for (int row = 0; row < depth; row++) {
+            counters.getAndAdd(row * width + index(row, key), delta);
+        }
+    }
+
+    long estimate(long key) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(row * width + index(row, key)));
+        }
+        return estimate;
+    }
+
+    /**
+     * 모든 칸을 절반으로 줄여 최근 경합에 가중치를 둔다. 동시 add와 겹쳐도 근사치라 문제없다.
+     */
+    void halve() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.getAndUpdate(i, value -> value >>> 1);
+        }
+    }
+
+    private int index(int row, long key) {
+        long h = (key ^ seeds[row]) * 0xBF58476D1CE4E5B9L;
+        h ^= h >>> 31;
+        return (int) h & mask;
+    }
+}
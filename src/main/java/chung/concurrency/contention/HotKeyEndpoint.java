@@ -0,0 +1,50 @@
+package chung.concurrency.contention;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * GET /actuator/hotkeys?limit=N : 최근 경합이 가장 많은 포인트 id와 경합 종류별 누적치.
+ */
+@Component
+@Endpoint(id = "hotkeys")
+public class HotKeyEndpoint {
+
+    private static final int DEFAULT_LIMIT = 10;
+
+    private final HotKeyTracker hotKeyTracker;
+
+    public HotKeyEndpoint(HotKeyTracker hotKeyTracker) {
+        this.hotKeyTracker = hotKeyTracker;
+    }
+
+    @ReadOperation
+    public HotKeyReport hotKeys(@Nullable Integer limit) {
+        Map<ContentionKind, KindTotal> totals = new LinkedHashMap<>();
+        for (ContentionKind kind : ContentionKind.values()) {
+            totals.put(kind, new KindTotal(hotKeyTracker.count(kind),
+                TimeUnit.NANOSECONDS.toMillis(hotKeyTracker.waitNanos(kind))));
+        }
+        List<HotKeyView> hotKeys = hotKeyTracker.topKeys(limit == null ? DEFAULT_LIMIT : limit).stream()
+            .map(hotKey -> new HotKeyView(hotKey.key(), hotKey.contentions(),
+                TimeUnit.NANOSECONDS.toMillis(hotKey.waitNanos())))
+            .toList();
+        return new HotKeyReport(totals, hotKeys);
+    }
+
+    public record HotKeyReport(Map<ContentionKind, KindTotal> totals, List<HotKeyView> hotKeys) {
+    }
+
+    public record KindTotal(long count, long waitMillis) {
+    }
+
+    public record HotKeyView(long pointId, long estimatedContentions, long estimatedWaitMillis) {
+    }
+}
@@ -0,0 +1,183 @@
+package chung.concurrency.contention;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 상시 켜두는 hot key 추적기. 경합 횟수와 잃은 시간을 Count-Min sketch 두 개에 누적하고,
+ * 추정 경합 횟수가 현재 top-K 최솟값을 넘는 key만 작은 top-K 테이블에 올린다.
+ * 대부분의 호출은 sketch 갱신과 volatile 읽기 한 번으로 끝나며, top-K 테이블 락은 상위 후보일 때만 잡는다.
+ * 주기적으로 모든 값을 절반으로 줄여 최근 경합 위주로 보여준다.
+ */
+@Component
+public class HotKeyTracker implements ContentionRecorder {
+
+    private static final int DEFAULT_TOP_K = 20;
+    private static final int SKETCH_DEPTH = 4;
+    private static final int SKETCH_WIDTH = 4_096;
+    private static final long DECAY_INTERVAL_SECONDS = 60L;
+
+    private final boolean jfrEnabled;
+    private final int topK;
+    private final CountMinSketch contentionSketch = new CountMinSketch(SKETCH_DEPTH, SKETCH_WIDTH);
+    private final CountMinSketch waitSketch = new CountMinSketch(SKETCH_DEPTH, SKETCH_WIDTH);
+    private final Map<ContentionKind, LongAdder> countsByKind = new EnumMap<>(ContentionKind.class);
+    private final Map<ContentionKind, LongAdder> waitNanosByKind = new EnumMap<>(ContentionKind.class);
+    private final Map<Long, HotKey> hotKeys = new HashMap<>();
+    private volatile long admissionThreshold;
+    private final ScheduledExecutorService decayScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "hot-key-decay");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public HotKeyTracker(@Value("${contention.jfr.enabled:false}") boolean jfrEnabled) {
+        this(jfrEnabled, DEFAULT_TOP_K);
+    }
+
+    HotKeyTracker(boolean jfrEnabled, int topK) {
+        this.jfrEnabled = jfrEnabled;
+        this.topK = topK;
+        for (ContentionKind kind : ContentionKind.values()) {
+            countsByKind.put(kind, new LongAdder());
+            waitNanosByKind.put(kind, new LongAdder());
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        decayScheduler.scheduleWithFixedDelay(this::decay,
+            DECAY_INTERVAL_SECONDS, DECAY_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        decayScheduler.shutdownNow();
+    }
+
+    @Override
+    public void record(ContentionKind kind, long key, long waitNanos) {
+        countsByKind.get(kind).increment();
+        waitNanosByKind.get(kind).add(waitNanos);
+        contentionSketch.add(key, 1);
+        if (waitNanos > 0) {
+            waitSketch.add(key, waitNanos);
+        }
+        if (jfrEnabled) {
+            ContentionJfrEvents.commit(kind, key, waitNanos);
+        }
+        long estimate = contentionSketch.estimate(key);
+        if (estimate < admissionThreshold) {
+            return;
+        }
+        synchronized (hotKeys) {
+            offer(key, estimate, waitSketch.estimate(key));
+        }
+    }
+
+    /**
+     * 추정 경합 횟수 내림차순 상위 key. 값은 sketch 추정치라 실제보다 클 수 있다.
+     */
+    public List<HotKey> topKeys(int limit) {
+        List<HotKey> snapshot;
+        synchronized (hotKeys) {
+            snapshot = new ArrayList<>(hotKeys.size());
+            hotKeys.values().forEach(hotKey -> snapshot.add(hotKey.copy()));
+        }
+        snapshot.sort(Comparator.comparingLong(HotKey::contentions).reversed()
+            .thenComparing(Comparator.comparingLong(HotKey::waitNanos).reversed()));
+        return snapshot.subList(0, Math.min(limit, snapshot.size()));
+    }
+
+    public long count(ContentionKind kind) {
+        return countsByKind.get(kind).sum();
+    }
+
+    public long waitNanos(ContentionKind kind) {
+        return waitNanosByKind.get(kind).sum();
+    }
+
+    void decay() {
+        contentionSketch.halve();
+        waitSketch.halve();
+        synchronized (hotKeys) {
+            hotKeys.values().removeIf(hotKey -> {
+                hotKey.contentions >>>= 1;
+                hotKey.waitNanos >>>= 1;
+                return hotKey.contentions == 0;
+            });
+            admissionThreshold = hotKeys.size() < topK ? 0 : minimum().contentions;
+        }
+    }
+
+    private void offer(long key, long estimatedContentions, long estimatedWaitNanos) {
+        HotKey hotKey = hotKeys.get(key);
+        if (hotKey != null) {
+            hotKey.contentions = estimatedContentions;
+            hotKey.waitNanos = estimatedWaitNanos;
+        } else if (hotKeys.size() < topK) {
+            hotKeys.put(key, new HotKey(key, estimatedContentions, estimatedWaitNanos));
+        } else {
+            HotKey coldest = minimum();
+            if (estimatedContentions <= coldest.contentions) {
+                return;
+            }
+            hotKeys.remove(coldest.key);
+            hotKeys.put(key, new HotKey(key, estimatedContentions, estimatedWaitNanos));
+        }
+        admissionThreshold = hotKeys.size() < topK ? 0 : minimum().contentions;
+    }
+
+    private HotKey minimum() {
+        HotKey minimum = null;
+        for (HotKey hotKey : hotKeys.values()) {
+            if (minimum == null || hotKey.contentions < minimum.contentions) {
+                minimum = hotKey;
+            }
+        }
+        return minimum;
+    }
+
+    public static final class HotKey {
+
+        private final long key;
+        private long contentions;
+        private long waitNanos;
+
+        private HotKey(long key, long contentions, long waitNanos) {
+            this.key = key;
+            this.contentions = contentions;
+            this.waitNanos = waitNanos;
+        }
+
+        public long key() {
+            return key;
+        }
+
+        public long contentions() {
+            return contentions;
+        }
+
+        public long waitNanos() {
+            return waitNanos;
+        }
+
+        private HotKey copy() {
+            return new HotKey(key, contentions, waitNanos);
+        }
+    }
+}
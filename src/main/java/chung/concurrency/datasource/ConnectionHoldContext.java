@@ -0,0 +1,34 @@
+package chung.concurrency.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * 현재 스레드가 어떤 충전 전략으로 커넥션을 쓰는지 표시한다.
+ * 바깥 전략(Facade)이 먼저 표시하면 안쪽 서비스의 표시는 무시되어, 커넥션 지표가 진입 전략 기준으로 집계된다.
+ */
+public final class ConnectionHoldContext {
+
+    static final String UNTAGGED = "untagged";
+
+    private static final ThreadLocal<String> STRATEGY = new ThreadLocal<>();
+
+    private ConnectionHoldContext() {
+    }
+
+    public static <T> T callAs(String strategy, Supplier<T> action) {
+        if (STRATEGY.get() != null) {
+            return action.get();
+        }
+        STRATEGY.set(strategy);
+        try {
+            return action.get();
+        } finally {
+            STRATEGY.remove();
+        }
+    }
+
+    static String currentStrategy() {
+        String strategy = STRATEGY.get();
+        return strategy == null ? UNTAGGED : strategy;
+    }
+}
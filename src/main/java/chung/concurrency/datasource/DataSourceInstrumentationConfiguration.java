@@ -0,0 +1,38 @@
+package chung.concurrency.datasource;
+
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 실제 커넥션 풀 DataSource를 {@link InstrumentedDataSource}로 감싼다.
+ * 레플리카 라우팅을 쓰면 "dataSource"는 지연 프록시이므로 건너뛰고 primary/replica 풀을 각각 감싼다.
+ */
+@Configuration(proxyBeanMethods = false)
+public class DataSourceInstrumentationConfiguration {
+
+    private static final Set<String> POOLED_DATA_SOURCE_BEANS =
+        Set.of("dataSource", "primaryDataSource", "replicaDataSource");
+
+    @Bean
+    public static BeanPostProcessor connectionHoldInstrumentation(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && POOLED_DATA_SOURCE_BEANS.contains(beanName)
+                    && !(bean instanceof InstrumentedDataSource) && !(bean instanceof LazyConnectionDataSourceProxy)) {
+                    return new InstrumentedDataSource(dataSource, meterRegistry.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
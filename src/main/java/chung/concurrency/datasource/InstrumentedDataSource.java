@@ -0,0 +1,72 @@
+package chung.concurrency.datasource;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * 커넥션 획득 대기 시간과 점유 시간(getConnection → close)을 전략별 태그로 기록하는 DataSource.
+ * 풀 자체의 active/idle/pending 지표는 HikariCP가 hikaricp.connections.* 로 기록한다.
+ */
+public class InstrumentedDataSource extends DelegatingDataSource {
+
+    static final String ACQUIRE_METRIC = "point.connection.acquire";
+    static final String HOLD_METRIC = "point.connection.hold";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> acquireTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> holdTimers = new ConcurrentHashMap<>();
+
+    public InstrumentedDataSource(DataSource target, MeterRegistry meterRegistry) {
+        super(target);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long startedAt = System.nanoTime();
+        return instrument(super.getConnection(), startedAt);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long startedAt = System.nanoTime();
+        return instrument(super.getConnection(username, password), startedAt);
+    }
+
+    private Connection instrument(Connection connection, long requestedAt) {
+        String strategy = ConnectionHoldContext.currentStrategy();
+        long acquiredAt = System.nanoTime();
+        timer(acquireTimers, ACQUIRE_METRIC, strategy).record(acquiredAt - requestedAt, TimeUnit.NANOSECONDS);
+        Timer holdTimer = timer(holdTimers, HOLD_METRIC, strategy);
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+            (proxy, method, args) -> {
+                if (method.getName().equals("close") && !connection.isClosed()) {
+                    holdTimer.record(System.nanoTime() - acquiredAt, TimeUnit.NANOSECONDS);
+                }
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+            });
+    }
+
+    private Timer timer(Map<String, Timer> timers, String name, String strategy) {
+        return timers.computeIfAbsent(strategy, tag -> Timer.builder(name)
+            .tag("strategy", tag)
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry));
+    }
+}
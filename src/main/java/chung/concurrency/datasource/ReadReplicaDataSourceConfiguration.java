@@ -0,0 +1,60 @@
+package chung.concurrency.datasource;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * spring.datasource.replica.url이 있을 때만 primary/replica 두 풀을 만들고 readOnly 트랜잭션을 레플리카로 라우팅한다.
+ * 라우팅 DataSource는 기존과 같은 "dataSource" 이름으로 노출하고, 커넥션 계측은 실제 풀(primary/replica)에 붙는다.
+ * 레플리카 계정 정보와 풀 설정(spring.datasource.replica.hikari.*)을 생략하면 primary 계정을 그대로 쓴다.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "spring.datasource.replica", name = "url")
+public class ReadReplicaDataSourceConfiguration {
+
+    private static final String REPLICA_PREFIX = "spring.datasource.replica";
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(DataSourceProperties primaryProperties, Environment environment) {
+        HikariDataSource replica = DataSourceBuilder.create()
+            .type(HikariDataSource.class)
+            .url(environment.getRequiredProperty(REPLICA_PREFIX + ".url"))
+            .username(environment.getProperty(REPLICA_PREFIX + ".username", primaryProperties.determineUsername()))
+            .password(environment.getProperty(REPLICA_PREFIX + ".password", primaryProperties.determinePassword()))
+            .build();
+        Binder.get(environment).bind(REPLICA_PREFIX + ".hikari", Bindable.ofInstance(replica));
+        replica.setReadOnly(true);
+        if (replica.getPoolName() == null) {
+            replica.setPoolName("replica");
+        }
+        return replica;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+        @Qualifier("replicaDataSource") DataSource replicaDataSource) {
+        return new LazyConnectionDataSourceProxy(
+            new ReadReplicaRoutingDataSource(primaryDataSource, replicaDataSource));
+    }
+}
@@ -0,0 +1,30 @@
+package chung.concurrency.datasource;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * readOnly 트랜잭션은 레플리카로, 그 외(충전, 스키마 관리, 트랜잭션 밖 호출)는 primary로 보낸다.
+ * 트랜잭션 시작 시점에는 readOnly 플래그가 아직 동기화되지 않으므로 반드시
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} 뒤에 두어 첫 쿼리 시점에 라우팅해야 한다.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica";
+
+    public ReadReplicaRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? REPLICA : PRIMARY;
+    }
+}
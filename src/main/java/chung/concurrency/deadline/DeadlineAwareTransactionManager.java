@@ -0,0 +1,46 @@
+package chung.concurrency.deadline;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * 새 트랜잭션의 타임아웃을 요청의 남은 시간으로 줄인다. 이 타임아웃은 Hibernate 트랜잭션과 JDBC 문장별 query timeout으로
+ * 이어지므로, 행 락을 기다리는 SELECT ... FOR UPDATE도 기한이 지나면 취소된다.
+ * 기한이 이미 지났다면 커넥션을 잡기 전에 실패한다. 타임아웃 단위가 초라서 남은 시간은 올림하고,
+ * Hibernate가 문장마다 남은 초를 내림해 0초면 실행조차 하지 않으므로 1초를 더 준다.
+ * 그 1초 안의 기한 초과는 각 단계의 {@link RequestDeadline#checkNotExpired}가 잡는다.
+ */
+public class DeadlineAwareTransactionManager extends JpaTransactionManager {
+
+    static final int STATEMENT_ROUNDING_SECONDS = 1;
+
+    public DeadlineAwareTransactionManager(EntityManagerFactory entityManagerFactory) {
+        super(entityManagerFactory);
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        RequestDeadline.checkNotExpired("transaction begin");
+        super.doBegin(transaction, definition);
+    }
+
+    @Override
+    protected int determineTimeout(TransactionDefinition definition) {
+        int configured = super.determineTimeout(definition);
+        RequestDeadline deadline = RequestDeadline.current();
+        if (deadline == null) {
+            return configured;
+        }
+        long remainingMillis = Math.max(TimeUnit.NANOSECONDS.toMillis(deadline.remainingNanos()), 1L);
+        int remainingSeconds = (int) Math.min((remainingMillis + 999) / 1_000 + STATEMENT_ROUNDING_SECONDS,
+            Integer.MAX_VALUE);
+        if (configured == TransactionDefinition.TIMEOUT_DEFAULT) {
+            return remainingSeconds;
+        }
+        return Math.min(configured, remainingSeconds);
+    }
+}
@@ -0,0 +1,11 @@
+package chung.concurrency.deadline;
+
+import java.util.concurrent.TimeUnit;
+
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(String stage, long overdueNanos) {
+        super("요청 기한이 지나 작업을 중단했습니다. stage=" + stage
+            + ", overdue=" + TimeUnit.NANOSECONDS.toMillis(overdueNanos) + "ms");
+    }
+}
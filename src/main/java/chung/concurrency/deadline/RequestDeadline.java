@@ -0,0 +1,115 @@
+package chung.concurrency.deadline;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * 요청 하나가 끝나야 하는 시점(System.nanoTime 기준). 현재 스레드에 걸어 두면 락 대기, 백오프, 트랜잭션/JDBC 타임아웃이
+ * 각자의 기본 한도 대신 남은 시간을 넘지 않게 줄어들고, 기한이 지난 뒤의 단계는 {@link DeadlineExceededException}으로 건너뛴다.
+ * 중첩해서 걸면 더 이른 기한이 유지된다.
+ */
+public final class RequestDeadline {
+
+    private static final ThreadLocal<RequestDeadline> CURRENT = new ThreadLocal<>();
+
+    private final long deadlineNanos;
+
+    private RequestDeadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    public static RequestDeadline after(Duration budget) {
+        return new RequestDeadline(System.nanoTime() + budget.toNanos());
+    }
+
+    /**
+     * 현재 스레드에 걸린 기한. 없으면 null.
+     */
+    public static RequestDeadline current() {
+        return CURRENT.get();
+    }
+
+    public static <T> T callWithin(Duration budget, Supplier<T> action) {
+        return callWith(after(budget), action);
+    }
+
+    public static <T> T callWith(RequestDeadline deadline, Supplier<T> action) {
+        try (Scope ignored = enter(deadline)) {
+            return action.get();
+        }
+    }
+
+    /**
+     * 닫을 때 이전 기한으로 되돌리는 scope를 연다. deadline이 null이거나 이미 더 이른 기한이 걸려 있으면 그대로 둔다.
+     */
+    public static Scope enter(RequestDeadline deadline) {
+        RequestDeadline previous = CURRENT.get();
+        if (deadline == null || (previous != null && previous.isBefore(deadline.deadlineNanos))) {
+            return () -> {
+            };
+        }
+        CURRENT.set(deadline);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    /**
+     * 호출자가 정한 기한(nanoTime)과 현재 요청 기한 중 이른 쪽.
+     */
+    public static long boundNanoTime(long deadlineNanoTime) {
+        RequestDeadline deadline = CURRENT.get();
+        return deadline != null && deadline.isBefore(deadlineNanoTime) ? deadline.deadlineNanos : deadlineNanoTime;
+    }
+
+    /**
+     * 현재 요청 기한이 호출자가 정한 기한보다 이른지. 대기를 포기한 이유가 요청 기한인지 가릴 때 쓴다.
+     */
+    public static boolean limits(long deadlineNanoTime) {
+        RequestDeadline deadline = CURRENT.get();
+        return deadline != null && deadline.isBefore(deadlineNanoTime);
+    }
+
+    public static void checkNotExpired(String stage) {
+        RequestDeadline deadline = CURRENT.get();
+        if (deadline != null) {
+            deadline.check(stage);
+        }
+    }
+
+    public void check(String stage) {
+        if (isExpired()) {
+            throw exceeded(stage);
+        }
+    }
+
+    /**
+     * stage에서 기한 때문에 포기했음을 알리는 예외. 남은 대기가 기한을 넘길 것이라 미리 포기한 경우 overdue는 0이다.
+     */
+    public DeadlineExceededException exceeded(String stage) {
+        return new DeadlineExceededException(stage, Math.max(-remainingNanos(), 0L));
+    }
+
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    public long remainingNanos() {
+        return deadlineNanos - System.nanoTime();
+    }
+
+    private boolean isBefore(long nanoTime) {
+        return deadlineNanos - nanoTime < 0;
+    }
+
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,25 @@
+package chung.concurrency.deadline;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Boot 기본 JpaTransactionManager 대신 요청 기한을 반영하는 트랜잭션 매니저를 등록한다.
+ * 같은 이름의 빈이 있으면 Boot 자동 설정은 물러나므로 customizer(spring.transaction.*)는 여기서 직접 적용한다.
+ */
+@Configuration(proxyBeanMethods = false)
+public class RequestDeadlineConfiguration {
+
+    @Bean
+    public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory,
+        ObjectProvider<TransactionManagerCustomizers> transactionManagerCustomizers) {
+        DeadlineAwareTransactionManager transactionManager = new DeadlineAwareTransactionManager(entityManagerFactory);
+        transactionManagerCustomizers.ifAvailable(customizers -> customizers.customize(transactionManager));
+        return transactionManager;
+    }
+}
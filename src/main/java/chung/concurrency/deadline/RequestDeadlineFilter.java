@@ -0,0 +1,55 @@
+package chung.concurrency.deadline;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * 클라이언트가 기다릴 시간(ms)을 {@code X-Request-Timeout} 헤더나 {@code timeoutMs} 파라미터로 받아 요청 스레드에 기한으로 건다.
+ * 서버 간 시계 차이를 피하려고 절대 시각 대신 남은 시간을 받으며, 둘 다 없으면 기한 없이 각 단계의 기본 한도를 쓴다.
+ * 0 이하는 400으로 거절하고, {@link #MAX_TIMEOUT_MILLIS}보다 긴 값은 그 값으로 줄인다(나노초 변환 overflow 방지).
+ */
+@Component
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout";
+    public static final String TIMEOUT_PARAMETER = "timeoutMs";
+    public static final long MAX_TIMEOUT_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+        String timeout = request.getHeader(TIMEOUT_HEADER);
+        if (timeout == null) {
+            timeout = request.getParameter(TIMEOUT_PARAMETER);
+        }
+        if (timeout == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        long timeoutMillis;
+        try {
+            timeoutMillis = Long.parseLong(timeout.trim());
+        } catch (NumberFormatException e) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "invalid request timeout: " + timeout);
+            return;
+        }
+        if (timeoutMillis <= 0) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "request timeout must be positive: " + timeout);
+            return;
+        }
+        RequestDeadline deadline = RequestDeadline.after(Duration.ofMillis(Math.min(timeoutMillis, MAX_TIMEOUT_MILLIS)));
+        try (RequestDeadline.Scope ignored = RequestDeadline.enter(deadline)) {
+            chain.doFilter(request, response);
+        }
+    }
+}
@@ -1,19 +1,243 @@
 package chung.concurrency.lock;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
+/**
+ * Redis Cluster의 hash slot처럼 key를 독립된 샤드로 나눈 모의 Redis 락 테이블.
+ * 샤드마다 long key → (owner token, 만료 시각)을 원시 배열 기반 open addressing으로 보관하므로
+ * 획득/해제 경로에서 key 문자열, 토큰 객체, 맵 엔트리를 만들지 않는다.
+ * 모든 lease는 만료 시각 기준 timer wheel에 등록되어, 다시 접근되지 않는 key도 {@link LeaseReaper}가 회수한다.
+ * fencing token은 전역 단조 카운터를 샤드 임계 구역 안에서 증가시켜 발급하므로 key별로도 단조 증가한다.
+ * 카운터는 메모리에만 있으므로 생성 시 {@link FencingTokenFloor}(저장된 가장 큰 토큰)에서 시작해 재시작 후에도 이어진다.
+ */
 @Component
-public class FakeRedisLock {
+@ConditionalOnProperty(name = "lock.backend", havingValue = "memory", matchIfMissing = true)
+public class FakeRedisLock implements LockBackend {
+
+    private static final int SHARD_COUNT = 64;
+    private static final int INITIAL_SHARD_CAPACITY = 64;
+    private static final int EXPIRY_WHEEL_SIZE = 512;
+    private static final long EXPIRY_TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final Shard[] shards = new Shard[SHARD_COUNT];
+    private final LeaseExpiryWheel expiryWheel =
+        new LeaseExpiryWheel(EXPIRY_WHEEL_SIZE, EXPIRY_TICK_NANOS, System.nanoTime());
+    private final LeaseExpiryWheel.ExpiryHandler reapHandler = this::reapIfStillExpired;
+    private final AtomicLong reapedLeases = new AtomicLong();
+    private final AtomicLong fencingSequence;
+
+    public FakeRedisLock() {
+        this(FencingTokenFloor.NONE);
+    }
+
+    @Autowired
+    public FakeRedisLock(ObjectProvider<FencingTokenFloor> fencingTokenFloor) {
+        this(fencingTokenFloor.getIfAvailable(() -> FencingTokenFloor.NONE));
+    }
+
+    public FakeRedisLock(FencingTokenFloor fencingTokenFloor) {
+        this.fencingSequence = new AtomicLong(fencingTokenFloor.highestRecorded());
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            shards[i] = new Shard(INITIAL_SHARD_CAPACITY);
+        }
+    }
+
+    @Override
+    public long tryAcquire(long key, long ownerToken, Duration leaseDuration) {
+        return tryLock(key, ownerToken, System.nanoTime() + leaseDuration.toNanos());
+    }
+
+    /**
+     * key가 비어 있을 때만 ownerToken으로 점유하고 fencing token을 반환한다. 실패하면 {@link #NOT_ACQUIRED}.
+     * ownerToken은 0이 아니어야 한다.
+     */
+    public long tryLock(long key, long ownerToken, long expiryNanoTime) {
+        if (ownerToken == Shard.NO_OWNER) {
+            throw new IllegalArgumentException("owner token must not be 0");
+        }
+        long fencingToken = shardOf(key).tryLock(key, ownerToken, expiryNanoTime, fencingSequence);
+        if (fencingToken == NOT_ACQUIRED) {
+            return NOT_ACQUIRED;
+        }
+        expiryWheel.schedule(key, ownerToken, expiryNanoTime);
+        return fencingToken;
+    }
+
+    /**
+     * 현재 소유자가 ownerToken일 때만 해제한다. 만료 후 다른 소유자가 가져간 락은 건드리지 않는다.
+     */
+    @Override
+    public boolean unlock(long key, long ownerToken) {
+        return shardOf(key).unlock(key, ownerToken);
+    }
+
+    @Override
+    public boolean reclaimIfExpired(long key) {
+        return reclaimIfExpired(key, System.nanoTime());
+    }
+
+    /**
+     * lease가 nowNanoTime 기준으로 만료됐다면 강제로 제거한다.
+     */
+    public boolean reclaimIfExpired(long key, long nowNanoTime) {
+        return shardOf(key).reclaimIfExpired(key, nowNanoTime);
+    }
+
+    /**
+     * reaper 스레드 전용. 지금까지 만료된 lease를 timer wheel에서 찾아 회수한다.
+     * 이미 해제됐거나 다른 소유자에게 넘어간 lease는 owner token이 달라 건너뛴다.
+     */
+    public void reapExpired(long nowNanoTime) {
+        expiryWheel.advance(nowNanoTime, reapHandler);
+    }
+
+    public long reapedCount() {
+        return reapedLeases.get();
+    }
+
+    public int size() {
+        int size = 0;
+        for (Shard shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
 
-    private final Map<String, String> lockStore = new ConcurrentHashMap<>();
+    private void reapIfStillExpired(long key, long ownerToken, long nowNanoTime) {
+        if (shardOf(key).reclaimIfExpired(key, ownerToken, nowNanoTime)) {
+            reapedLeases.incrementAndGet();
+        }
+    }
+
+    private Shard shardOf(long key) {
+        return shards[(int) (mix(key) >>> 58)];
+    }
 
-    public boolean tryLock(String key) {
-        return lockStore.putIfAbsent(key, "LOCKED") == null;
+    static long mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
     }
 
-    public void unlock(String key) {
-        lockStore.remove(key);
+    /**
+     * 선형 탐사 + backward shift 삭제를 쓰는 long → lease 테이블.
+     * 샤드 단위 임계 구역은 O(1) 탐사만 포함하므로 서로 다른 샤드의 key는 전혀 경합하지 않는다.
+     */
+    private static final class Shard {
+
+        private static final long NO_OWNER = 0L;
+
+        private long[] keys;
+        private long[] owners;
+        private long[] expiries;
+        private int mask;
+        private int size;
+
+        private Shard(int capacity) {
+            allocate(capacity);
+        }
+
+        synchronized long tryLock(long key, long ownerToken, long expiryNanoTime, AtomicLong fencingSequence) {
+            int index = indexOf(key);
+            if (owners[index] != NO_OWNER) {
+                return NOT_ACQUIRED;
+            }
+            keys[index] = key;
+            owners[index] = ownerToken;
+            expiries[index] = expiryNanoTime;
+            if (++size * 2 > keys.length) {
+                resize();
+            }
+            return fencingSequence.incrementAndGet();
+        }
+
+        synchronized boolean unlock(long key, long ownerToken) {
+            int index = indexOf(key);
+            if (owners[index] != ownerToken) {
+                return false;
+            }
+            remove(index);
+            return true;
+        }
+
+        synchronized boolean reclaimIfExpired(long key, long nowNanoTime) {
+            int index = indexOf(key);
+            if (owners[index] == NO_OWNER || nowNanoTime - expiries[index] < 0) {
+                return false;
+            }
+            remove(index);
+            return true;
+        }
+
+        synchronized boolean reclaimIfExpired(long key, long ownerToken, long nowNanoTime) {
+            int index = indexOf(key);
+            if (owners[index] != ownerToken || nowNanoTime - expiries[index] < 0) {
+                return false;
+            }
+            remove(index);
+            return true;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        /**
+         * key가 있으면 그 슬롯을, 없으면 key가 들어갈 빈 슬롯을 반환한다.
+         */
+        private int indexOf(long key) {
+            int index = (int) mix(key) & mask;
+            while (owners[index] != NO_OWNER && keys[index] != key) {
+                index = (index + 1) & mask;
+            }
+            return index;
+        }
+
+        private void remove(int index) {
+            owners[index] = NO_OWNER;
+            size--;
+            // 뒤따르는 클러스터를 앞으로 당겨 tombstone 없이 탐사 체인을 유지한다.
+            int hole = index;
+            int next = (hole + 1) & mask;
+            while (owners[next] != NO_OWNER) {
+                int home = (int) mix(keys[next]) & mask;
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    keys[hole] = keys[next];
+                    owners[hole] = owners[next];
+                    expiries[hole] = expiries[next];
+                    owners[next] = NO_OWNER;
+                    hole = next;
+                }
+                next = (next + 1) & mask;
+            }
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            long[] oldOwners = owners;
+            long[] oldExpiries = expiries;
+            allocate(oldKeys.length * 2);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldOwners[i] != NO_OWNER) {
+                    int index = indexOf(oldKeys[i]);
+                    keys[index] = oldKeys[i];
+                    owners[index] = oldOwners[i];
+                    expiries[index] = oldExpiries[i];
+                }
+            }
+        }
+
+        private void allocate(int capacity) {
+            keys = new long[capacity];
+            owners = new long[capacity];
+            expiries = new long[capacity];
+            mask = capacity - 1;
+        }
     }
 }
@@ -0,0 +1,14 @@
+package chung.concurrency.lock;
+
+/**
+ * 쓰기 대상에 이미 기록된 가장 큰 fencing token.
+ * 카운터를 메모리에만 두는 락 저장소(FakeRedisLock, 내장 RESP 서버)는 재시작 후 이 값보다 큰 토큰부터 발급해야
+ * 재시작 전에 기록된 토큰보다 작은 토큰으로 정상 소유자의 쓰기가 거절되지 않는다.
+ */
+@FunctionalInterface
+public interface FencingTokenFloor {
+
+    FencingTokenFloor NONE = () -> 0L;
+
+    long highestRecorded();
+}
@@ -0,0 +1,94 @@
+package chung.concurrency.lock;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * MySQL 락 테이블 기반 LockBackend. 같은 DB를 바라보는 모든 인스턴스가 하나의 락을 공유한다.
+ * GET_LOCK은 커넥션에 묶여 있어 락을 쥐는 동안 커넥션을 점유해야 하므로, lease 만료가 있는 행 단위 락을 쓴다.
+ * 만료 시각은 애플리케이션 시계를 쓰므로 인스턴스 간 시계 오차는 lease보다 충분히 작아야 한다.
+ * fencing token을 key별로 이어가기 위해 해제 시 행을 지우지 않고 소유자만 비운다.
+ * 락 테이블이 새로 만들어졌거나 다른 락 저장소를 쓰다가 옮겨 온 경우에도 이미 기록된 토큰보다 작은 토큰을 주지 않도록,
+ * 부팅 시 읽은 {@link FencingTokenFloor}보다 큰 토큰부터 발급한다.
+ */
+@Component
+@ConditionalOnProperty(name = "lock.backend", havingValue = "jdbc")
+public class JdbcLockBackend implements LockBackend {
+
+    private static final String CREATE_TABLE = """
+        create table if not exists distributed_locks (
+            lock_key bigint not null primary key,
+            owner_token bigint not null,
+            expires_at bigint not null,
+            fencing_token bigint not null
+        )
+        """;
+    private static final String TAKE_OVER_EXPIRED = """
+        update distributed_locks
+        set owner_token = ?, expires_at = ?, fencing_token = greatest(fencing_token, ?) + 1
+        where lock_key = ? and expires_at <= ?
+        """;
+    private static final String SELECT_FENCING_TOKEN =
+        "select fencing_token from distributed_locks where lock_key = ? and owner_token = ?";
+    private static final String INSERT =
+        "insert into distributed_locks (lock_key, owner_token, expires_at, fencing_token) values (?, ?, ?, ?)";
+    private static final String RELEASE_OWNED =
+        "update distributed_locks set owner_token = 0, expires_at = 0 where lock_key = ? and owner_token = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LongSupplier clockMillis;
+    private final long fencingTokenFloor;
+
+    @Autowired
+    public JdbcLockBackend(JdbcTemplate jdbcTemplate, ObjectProvider<FencingTokenFloor> fencingTokenFloor) {
+        this(jdbcTemplate, System::currentTimeMillis, fencingTokenFloor.getIfAvailable(() -> FencingTokenFloor.NONE));
+    }
+
+    JdbcLockBackend(JdbcTemplate jdbcTemplate, LongSupplier clockMillis) {
+        this(jdbcTemplate, clockMillis, FencingTokenFloor.NONE);
+    }
+
+    JdbcLockBackend(JdbcTemplate jdbcTemplate, LongSupplier clockMillis, FencingTokenFloor fencingTokenFloor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clockMillis = clockMillis;
+        this.fencingTokenFloor = fencingTokenFloor.highestRecorded();
+    }
+
+    @PostConstruct
+    public void createTableIfAbsent() {
+        jdbcTemplate.execute(CREATE_TABLE);
+    }
+
+    @Override
+    public long tryAcquire(long key, long ownerToken, Duration leaseDuration) {
+        long now = clockMillis.getAsLong();
+        long expiresAt = now + leaseDuration.toMillis();
+        if (jdbcTemplate.update(TAKE_OVER_EXPIRED, ownerToken, expiresAt, fencingTokenFloor, key, now) == 1) {
+            // 방금 넣은 owner token으로 조회하므로, 그 사이 lease를 잃었다면 결과가 없다.
+            List<Long> fencingTokens = jdbcTemplate.queryForList(SELECT_FENCING_TOKEN, Long.class, key, ownerToken);
+            return fencingTokens.isEmpty() ? NOT_ACQUIRED : fencingTokens.get(0);
+        }
+        try {
+            long firstFencingToken = fencingTokenFloor + 1;
+            return jdbcTemplate.update(INSERT, key, ownerToken, expiresAt, firstFencingToken) == 1
+                ? firstFencingToken : NOT_ACQUIRED;
+        } catch (DuplicateKeyException alreadyLocked) {
+            return NOT_ACQUIRED;
+        }
+    }
+
+    @Override
+    public boolean unlock(long key, long ownerToken) {
+        return jdbcTemplate.update(RELEASE_OWNED, key, ownerToken) == 1;
+    }
+}
@@ -0,0 +1,114 @@
+package chung.concurrency.lock;
+
+/**
+ * lease 만료 시각을 tick 단위 버킷으로 모아두는 hashed timer wheel.
+ * schedule은 버킷 끝에 (key, owner, tick)을 덧붙이기만 하고, advance는 지나간 tick의 버킷만 훑으므로
+ * lease 하나당 비용은 O(1)이다. wheel 한 바퀴보다 긴 lease는 자기 tick이 올 때까지 같은 버킷에 다시 넣는다.
+ */
+final class LeaseExpiryWheel {
+
+    private static final int ENTRY_WIDTH = 3;
+    private static final int INITIAL_BUCKET_ENTRIES = 16;
+
+    private final Bucket[] buckets;
+    private final int mask;
+    private final long tickNanos;
+    private final long originNanoTime;
+    private volatile long processedTick;
+
+    LeaseExpiryWheel(int wheelSize, long tickNanos, long originNanoTime) {
+        if (Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("wheel size must be a power of two: " + wheelSize);
+        }
+        this.buckets = new Bucket[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new Bucket();
+        }
+        this.mask = wheelSize - 1;
+        this.tickNanos = tickNanos;
+        this.originNanoTime = originNanoTime;
+    }
+
+    void schedule(long key, long ownerToken, long expiryNanoTime) {
+        long tick = tickOf(expiryNanoTime);
+        // 이미 처리한 tick에 넣으면 한 바퀴 늦게 회수되므로 다음 tick으로 당긴다.
+        long slotTick = Math.max(tick, processedTick + 1);
+        buckets[(int) slotTick & mask].add(key, ownerToken, tick);
+    }
+
+    /**
+     * reaper 스레드 전용. nowNanoTime까지 지난 tick의 버킷을 비우며 만료 후보를 handler에 넘긴다.
+     */
+    void advance(long nowNanoTime, ExpiryHandler handler) {
+        long nowTick = tickOf(nowNanoTime);
+        long fromTick = processedTick + 1;
+        long toTick = Math.min(nowTick, fromTick + mask);
+        for (long tick = fromTick; tick <= toTick; tick++) {
+            Bucket bucket = buckets[(int) tick & mask];
+            int count = bucket.beginDrain();
+            long[] entries = bucket.drained();
+            for (int i = 0; i < count * ENTRY_WIDTH; i += ENTRY_WIDTH) {
+                long key = entries[i];
+                long ownerToken = entries[i + 1];
+                long dueTick = entries[i + 2];
+                if (dueTick > nowTick) {
+                    bucket.add(key, ownerToken, dueTick);
+                } else {
+                    handler.onDue(key, ownerToken, nowNanoTime);
+                }
+            }
+        }
+        if (nowTick > processedTick) {
+            processedTick = nowTick;
+        }
+    }
+
+    private long tickOf(long nanoTime) {
+        return Math.max(0L, (nanoTime - originNanoTime) / tickNanos);
+    }
+
+    @FunctionalInterface
+    interface ExpiryHandler {
+        void onDue(long key, long ownerToken, long nowNanoTime);
+    }
+
+    /**
+     * (key, owner, tick) 세 칸씩 저장하는 원시 배열 버킷.
+     * 비울 때는 배열을 spare와 맞바꾸므로 버킷이 충분히 커진 뒤에는 할당이 없다.
+     */
+    private static final class Bucket {
+
+        private long[] entries = new long[INITIAL_BUCKET_ENTRIES * ENTRY_WIDTH];
+        private long[] spare = new long[INITIAL_BUCKET_ENTRIES * ENTRY_WIDTH];
+        private int size;
+
+        synchronized void add(long key, long ownerToken, long tick) {
+            int offset = size * ENTRY_WIDTH;
+            if (offset + ENTRY_WIDTH > entries.length) {
+                long[] grown = new long[entries.length * 2];
+                System.arraycopy(entries, 0, grown, 0, offset);
+                entries = grown;
+            }
+            entries[offset] = key;
+            entries[offset + 1] = ownerToken;
+            entries[offset + 2] = tick;
+            size++;
+        }
+
+        synchronized int beginDrain() {
+            long[] full = entries;
+            entries = spare;
+            spare = full;
+            int count = size;
+            size = 0;
+            return count;
+        }
+
+        /**
+         * beginDrain 직후 reaper 스레드만 읽는다. add는 spare를 건드리지 않는다.
+         */
+        long[] drained() {
+            return spare;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package chung.concurrency.lock;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 백그라운드에서 FakeRedisLock의 만료 lease를 회수한다.
+ * 경합이 있을 때만 회수하던 RedisLockExecutor와 달리, 소유자가 사라진 뒤 아무도 다시 찾지 않는 key도 정리한다.
+ */
+@Component
+@ConditionalOnProperty(name = "lock.backend", havingValue = "memory", matchIfMissing = true)
+public class LeaseReaper implements MeterBinder {
+
+    private static final long REAP_INTERVAL_MILLIS = 10L;
+
+    private final FakeRedisLock fakeRedisLock;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "lease-reaper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public LeaseReaper(FakeRedisLock fakeRedisLock) {
+        this.fakeRedisLock = fakeRedisLock;
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler.scheduleWithFixedDelay(() -> fakeRedisLock.reapExpired(System.nanoTime()),
+            REAP_INTERVAL_MILLIS, REAP_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("lock.leases.live", fakeRedisLock, FakeRedisLock::size)
+            .description("현재 점유 중인 lease 수")
+            .register(registry);
+        FunctionCounter.builder("lock.leases.reaped", fakeRedisLock, FakeRedisLock::reapedCount)
+            .description("백그라운드 reaper가 회수한 만료 lease 수")
+            .register(registry);
+    }
+}
@@ -0,0 +1,30 @@
+package chung.concurrency.lock;
+
+import java.time.Duration;
+
+/**
+ * RedisLockExecutor가 사용하는 락 저장소 SPI.
+ * 구현체는 lock.backend 설정(memory | jdbc | resp)으로 하나만 등록된다.
+ */
+public interface LockBackend {
+
+    long NOT_ACQUIRED = 0L;
+
+    /**
+     * key가 비어 있거나 이전 lease가 만료됐을 때만 ownerToken으로 점유한다.
+     * 성공하면 같은 key에 대해 단조 증가하는 fencing token(> 0)을, 실패하면 {@link #NOT_ACQUIRED}를 반환한다.
+     */
+    long tryAcquire(long key, long ownerToken, Duration leaseDuration);
+
+    /**
+     * 현재 소유자가 ownerToken일 때만 해제한다.
+     */
+    boolean unlock(long key, long ownerToken);
+
+    /**
+     * 만료 판단을 저장소가 직접 하지 않는 구현체를 위한 훅. 대기 중인 호출자가 호출한다.
+     */
+    default boolean reclaimIfExpired(long key) {
+        return false;
+    }
+}
@@ -1,115 +1,157 @@
 package chung.concurrency.lock;
 
+import java.security.SecureRandom;
 import java.time.Duration;
-import java.util.Map;
-import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import chung.concurrency.contention.ContentionKind;
+import chung.concurrency.contention.ContentionRecorder;
+import chung.concurrency.deadline.RequestDeadline;
+import chung.concurrency.retry.BackoffPolicy;
+import chung.concurrency.schedule.SchedulePoint;
+
 /**
- * FakeRedisLock 기반 분산 락 실행기.
+ * LockBackend 기반 분산 락 실행기.
  * acquire → wait(backoff) → action → release 흐름을 캡슐화하고,
  * lease time(TTL) 만료 시 좀비 락을 강제로 제거한다.
+ * owner token은 UUID 대신 단조 증가 카운터를 쓰므로 획득마다 문자열을 만들지 않는다.
+ * 여러 인스턴스가 같은 저장소를 공유해도 겹치지 않도록 카운터 상위 비트는 인스턴스마다 무작위로 정한다.
+ * lease가 만료된 뒤 깨어난 소유자의 쓰기를 막으려면 {@link #executeWithFencedLock}으로 fencing token을 받아
+ * 쓰기 대상이 더 작은 토큰을 거절하게 한다.
+ * 획득 재시도 간격은 기본적으로 decorrelated jitter(20~200ms)라서 대기자들이 같은 박자로 몰려들지 않는다.
+ * 현재 스레드에 {@link RequestDeadline}이 걸려 있으면 대기 한도는 waitTimeout과 남은 시간 중 짧은 쪽이며,
+ * 기한 안에 얻지 못하거나 얻은 시점에 이미 기한이 지났다면 임계 구역을 실행하지 않는다.
  */
 @Component
 public class RedisLockExecutor {
 
-    private static final long DEFAULT_LEASE_MILLIS = 1_000L;
-    private static final long DEFAULT_WAIT_TIMEOUT_MILLIS = 10_000L;
-    private static final long INITIAL_BACKOFF_MILLIS = 20L;
-    private static final long MAX_BACKOFF_MILLIS = 200L;
+    private static final Duration DEFAULT_LEASE = Duration.ofMillis(1_000L);
+    private static final Duration DEFAULT_WAIT_TIMEOUT = Duration.ofMillis(10_000L);
+    private static final Duration DEFAULT_BACKOFF_BASE = Duration.ofMillis(20L);
+    private static final Duration DEFAULT_BACKOFF_MAX = Duration.ofMillis(200L);
+
+    private static final int OWNER_SEQUENCE_BITS = 40;
+    private static final long INSTANCE_ID_MASK = (1L << (Long.SIZE - 1 - OWNER_SEQUENCE_BITS)) - 1;
 
-    private final FakeRedisLock fakeRedisLock;
-    private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+    private final LockBackend lockBackend;
+    private final BackoffPolicy backoffPolicy;
+    private final ContentionRecorder contentionRecorder;
+    private final AtomicLong ownerTokenSequence =
+        new AtomicLong((new SecureRandom().nextLong() & INSTANCE_ID_MASK) << OWNER_SEQUENCE_BITS);
 
-    public RedisLockExecutor(FakeRedisLock fakeRedisLock) {
-        this.fakeRedisLock = fakeRedisLock;
+    @Autowired
+    public RedisLockExecutor(LockBackend lockBackend, ContentionRecorder contentionRecorder) {
+        this(lockBackend, BackoffPolicy.decorrelatedJitter(DEFAULT_BACKOFF_BASE, DEFAULT_BACKOFF_MAX),
+            contentionRecorder);
     }
 
-    public <T> T executeWithLock(String key, Supplier<T> criticalSection) {
-        return executeWithLock(key, criticalSection, Duration.ofMillis(DEFAULT_LEASE_MILLIS),
-            Duration.ofMillis(DEFAULT_WAIT_TIMEOUT_MILLIS));
+    public RedisLockExecutor(LockBackend lockBackend, BackoffPolicy backoffPolicy) {
+        this(lockBackend, backoffPolicy, ContentionRecorder.NOOP);
     }
 
-    public void executeWithLock(String key, Runnable criticalSection) {
+    public RedisLockExecutor(LockBackend lockBackend, BackoffPolicy backoffPolicy,
+        ContentionRecorder contentionRecorder) {
+        this.lockBackend = lockBackend;
+        this.backoffPolicy = backoffPolicy;
+        this.contentionRecorder = contentionRecorder;
+    }
+
+    public <T> T executeWithLock(long key, Supplier<T> criticalSection) {
+        return executeWithLock(key, criticalSection, DEFAULT_LEASE, DEFAULT_WAIT_TIMEOUT);
+    }
+
+    public void executeWithLock(long key, Runnable criticalSection) {
         executeWithLock(key, () -> {
             criticalSection.run();
             return null;
         });
     }
 
-    public <T> T executeWithLock(String key, Supplier<T> criticalSection,
+    public <T> T executeWithLock(long key, Supplier<T> criticalSection,
+        Duration leaseDuration, Duration waitTimeout) {
+        return executeWithFencedLock(key, fencingToken -> criticalSection.get(), leaseDuration, waitTimeout);
+    }
+
+    public <T> T executeWithFencedLock(long key, FencedSection<T> criticalSection) {
+        return executeWithFencedLock(key, criticalSection, DEFAULT_LEASE, DEFAULT_WAIT_TIMEOUT);
+    }
+
+    public <T> T executeWithFencedLock(long key, FencedSection<T> criticalSection,
         Duration leaseDuration, Duration waitTimeout) {
-        String ownerToken = UUID.randomUUID().toString();
-        acquireWithBackoff(key, ownerToken, leaseDuration, waitTimeout);
+        long ownerToken = ownerTokenSequence.incrementAndGet();
+        long fencingToken = acquireWithBackoff(key, ownerToken, leaseDuration, waitTimeout);
+        long acquiredAt = System.nanoTime();
+        SchedulePoint.LOCK_ACQUIRED.reach();
         try {
-            return criticalSection.get();
+            RequestDeadline.checkNotExpired("lock acquired");
+            return criticalSection.run(fencingToken);
         } finally {
+            SchedulePoint.LOCK_BEFORE_RELEASE.reach();
             releaseSafely(key, ownerToken);
+            backoffPolicy.recordLatency(System.nanoTime() - acquiredAt);
         }
     }
 
-    private void acquireWithBackoff(String key, String ownerToken,
+    private long acquireWithBackoff(long key, long ownerToken,
         Duration leaseDuration, Duration waitTimeout) {
-        long deadlineNanos = System.nanoTime() + waitTimeout.toNanos();
-        long backoffMillis = INITIAL_BACKOFF_MILLIS;
-        while (System.nanoTime() < deadlineNanos) {
-            if (tryAcquire(key, ownerToken, leaseDuration)) {
-                return;
+        RequestDeadline.checkNotExpired("lock wait");
+        long startedAt = System.nanoTime();
+        long waitDeadlineNanos = startedAt + waitTimeout.toNanos();
+        long deadlineNanos = RequestDeadline.boundNanoTime(waitDeadlineNanos);
+        BackoffPolicy.Backoff backoff = backoffPolicy.newBackoff();
+        boolean waited = false;
+        do {
+            long fencingToken = tryAcquire(key, ownerToken, leaseDuration);
+            if (fencingToken != LockBackend.NOT_ACQUIRED) {
+                if (waited) {
+                    contentionRecorder.record(ContentionKind.LOCK_WAIT, key, System.nanoTime() - startedAt);
+                }
+                return fencingToken;
             }
+            waited = true;
             reclaimExpiredLease(key);
-            sleep(backoffMillis);
-            backoffMillis = Math.min(backoffMillis * 2, MAX_BACKOFF_MILLIS);
+        } while (sleepBefore(backoff, deadlineNanos));
+        contentionRecorder.record(ContentionKind.LOCK_WAIT, key, System.nanoTime() - startedAt);
+        if (RequestDeadline.limits(waitDeadlineNanos)) {
+            throw RequestDeadline.current().exceeded("lock wait");
         }
         throw new IllegalStateException("lock acquisition timeout for key=" + key);
     }
 
-    private boolean tryAcquire(String key, String ownerToken, Duration leaseDuration) {
-        if (fakeRedisLock.tryLock(key)) {
-            long expiry = System.nanoTime() + leaseDuration.toNanos();
-            leases.put(key, new Lease(ownerToken, expiry));
-            return true;
-        }
-        return false;
+    private long tryAcquire(long key, long ownerToken, Duration leaseDuration) {
+        SchedulePoint.LOCK_BEFORE_ACQUIRE.reach();
+        return lockBackend.tryAcquire(key, ownerToken, leaseDuration);
     }
 
-    private void reclaimExpiredLease(String key) {
-        Lease lease = leases.get(key);
-        if (lease != null && lease.isExpired()) {
-            if (leases.remove(key, lease)) {
-                fakeRedisLock.unlock(key);
-            }
+    private void reclaimExpiredLease(long key) {
+        SchedulePoint.LEASE_BEFORE_RECLAIM.reach();
+        if (lockBackend.reclaimIfExpired(key)) {
+            contentionRecorder.record(ContentionKind.LEASE_RECLAIM, key, 0L);
         }
     }
 
-    private void releaseSafely(String key, String ownerToken) {
-        Lease lease = leases.get(key);
-        if (lease != null && lease.isOwnedBy(ownerToken)) {
-            leases.remove(key);
-            fakeRedisLock.unlock(key);
-        }
+    private void releaseSafely(long key, long ownerToken) {
+        lockBackend.unlock(key, ownerToken);
     }
 
-    private void sleep(long millis) {
+    private boolean sleepBefore(BackoffPolicy.Backoff backoff, long deadlineNanos) {
         try {
-            TimeUnit.MILLISECONDS.sleep(millis);
+            return backoff.sleepBefore(deadlineNanos);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new IllegalStateException("lock wait interrupted", e);
         }
     }
 
-    private record Lease(String ownerToken, long expiryNanoTime) {
-
-        boolean isOwnedBy(String token) {
-            return ownerToken.equals(token);
-        }
-
-        boolean isExpired() {
-            return System.nanoTime() >= expiryNanoTime;
-        }
+    /**
+     * 락을 쥔 동안 실행할 작업. 이번 획득의 fencing token을 받는다.
+     */
+    @FunctionalInterface
+    public interface FencedSection<T> {
+        T run(long fencingToken);
     }
 }
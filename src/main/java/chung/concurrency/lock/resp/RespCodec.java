@@ -0,0 +1,123 @@
+package chung.concurrency.lock.resp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 락 서버/클라이언트가 쓰는 RESP2 부분집합(배열 + bulk string 요청, simple/error/integer/bulk 응답) 인코더·디코더.
+ */
+final class RespCodec {
+
+    private static final byte[] CRLF = {'\r', '\n'};
+
+    private RespCodec() {
+    }
+
+    static void writeCommand(OutputStream out, String... args) throws IOException {
+        writeLine(out, '*', Integer.toString(args.length));
+        for (String arg : args) {
+            writeBulk(out, arg);
+        }
+        out.flush();
+    }
+
+    static void writeSimpleString(OutputStream out, String value) throws IOException {
+        writeLine(out, '+', value);
+    }
+
+    static void writeError(OutputStream out, String message) throws IOException {
+        writeLine(out, '-', message);
+    }
+
+    static void writeInteger(OutputStream out, long value) throws IOException {
+        writeLine(out, ':', Long.toString(value));
+    }
+
+    static void writeBulk(OutputStream out, String value) throws IOException {
+        if (value == null) {
+            writeLine(out, '$', "-1");
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeLine(out, '$', Integer.toString(bytes.length));
+        out.write(bytes);
+        out.write(CRLF);
+    }
+
+    /**
+     * 클라이언트 요청 하나를 읽는다. 연결이 정상 종료되면 null을 반환한다.
+     */
+    static List<String> readCommand(InputStream in) throws IOException {
+        int type = in.read();
+        if (type == -1) {
+            return null;
+        }
+        if (type != '*') {
+            throw new RespProtocolException("expected array but was '" + (char) type + "'");
+        }
+        int count = Integer.parseInt(readLine(in));
+        List<String> args = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int argType = in.read();
+            if (argType != '$') {
+                throw new RespProtocolException("expected bulk string but was '" + (char) argType + "'");
+            }
+            args.add(readBulkBody(in));
+        }
+        return args;
+    }
+
+    /**
+     * 서버 응답 하나를 읽는다. simple/bulk string은 String, integer는 Long, null bulk는 null.
+     */
+    static Object readReply(InputStream in) throws IOException {
+        int type = in.read();
+        return switch (type) {
+            case '+' -> readLine(in);
+            case '-' -> throw new RespProtocolException(readLine(in));
+            case ':' -> Long.parseLong(readLine(in));
+            case '$' -> readBulkBody(in);
+            case -1 -> throw new EOFException("connection closed by lock server");
+            default -> throw new RespProtocolException("unsupported reply type '" + (char) type + "'");
+        };
+    }
+
+    private static String readBulkBody(InputStream in) throws IOException {
+        int length = Integer.parseInt(readLine(in));
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length != length || in.read() != '\r' || in.read() != '\n') {
+            throw new EOFException("truncated bulk string");
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(16);
+        int current;
+        while ((current = in.read()) != '\r') {
+            if (current == -1) {
+                throw new EOFException("truncated line");
+            }
+            line.write(current);
+        }
+        if (in.read() != '\n') {
+            throw new RespProtocolException("expected LF after CR");
+        }
+        return line.toString(StandardCharsets.UTF_8);
+    }
+
+    private static void writeLine(OutputStream out, char type, String value) throws IOException {
+        out.write(type);
+        out.write(value.getBytes(StandardCharsets.UTF_8));
+        out.write(CRLF);
+    }
+}
@@ -0,0 +1,140 @@
+package chung.concurrency.lock.resp;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import chung.concurrency.lock.LockBackend;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * RESP로 락 서버(내장 RespLockServer 또는 Valkey/Redis)에 붙는 LockBackend.
+ * 획득(SET NX PX 성공 시에만 INCR)과 해제(값이 같을 때만 DEL)는 각각 EVAL 스크립트 한 번으로 원자적으로 처리하므로,
+ * fencing token은 실제로 점유한 소유자에게만 점유 순서대로 발급된다.
+ * 락 key와 fence key는 같은 hash tag를 써서 Redis Cluster에서도 한 slot에 놓인다.
+ * 토큰 카운터가 재시작 후에도 이어지려면 외부 Redis/Valkey는 AOF 등으로 영속화해야 한다(내장 서버는 부팅 시 저장된 최댓값에서 시작).
+ */
+@Component
+@ConditionalOnProperty(name = "lock.backend", havingValue = "resp")
+public class RespLockBackend implements LockBackend {
+
+    /**
+     * KEYS[1]=락 key, KEYS[2]=fence key, ARGV[1]=owner token, ARGV[2]=lease(ms). 점유하면 fencing token, 아니면 0.
+     */
+    static final String ACQUIRE_SCRIPT = """
+        if redis.call('SET', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) then
+            return redis.call('INCR', KEYS[2])
+        end
+        return 0
+        """;
+    /**
+     * KEYS[1]=락 key, ARGV[1]=owner token. 현재 값이 owner token일 때만 지우고 1, 아니면 0.
+     */
+    static final String RELEASE_SCRIPT = """
+        if redis.call('GET', KEYS[1]) == ARGV[1] then
+            return redis.call('DEL', KEYS[1])
+        end
+        return 0
+        """;
+
+    private static final int MAX_IDLE_CONNECTIONS = 16;
+    private static final int CONNECT_TIMEOUT_MILLIS = 1_000;
+    private static final int READ_TIMEOUT_MILLIS = 2_000;
+
+    private final String host;
+    private final int port;
+    private final BlockingQueue<Connection> idleConnections = new ArrayBlockingQueue<>(MAX_IDLE_CONNECTIONS);
+
+    public RespLockBackend(@Value("${lock.resp.host:localhost}") String host,
+        @Value("${lock.resp.port:6380}") int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    @Override
+    public long tryAcquire(long key, long ownerToken, Duration leaseDuration) {
+        Object reply = execute("EVAL", ACQUIRE_SCRIPT, "2", lockKey(key), fenceKey(key),
+            Long.toString(ownerToken), Long.toString(Math.max(1L, leaseDuration.toMillis())));
+        return (Long) reply;
+    }
+
+    @Override
+    public boolean unlock(long key, long ownerToken) {
+        Object reply = execute("EVAL", RELEASE_SCRIPT, "1", lockKey(key), Long.toString(ownerToken));
+        return Long.valueOf(1L).equals(reply);
+    }
+
+    static String lockKey(long key) {
+        return "lock:{point:" + key + "}";
+    }
+
+    static String fenceKey(long key) {
+        return "fence:{point:" + key + "}";
+    }
+
+    @PreDestroy
+    public void close() {
+        Connection connection;
+        while ((connection = idleConnections.poll()) != null) {
+            connection.close();
+        }
+    }
+
+    private Object execute(String... command) {
+        Connection connection = idleConnections.poll();
+        try {
+            if (connection == null) {
+                connection = new Connection(host, port);
+            }
+            Object reply = connection.send(command);
+            if (!idleConnections.offer(connection)) {
+                connection.close();
+            }
+            return reply;
+        } catch (IOException e) {
+            if (connection != null) {
+                connection.close();
+            }
+            throw new IllegalStateException("lock server request failed: " + command[0], e);
+        }
+    }
+
+    private static final class Connection {
+
+        private final Socket socket;
+        private final InputStream in;
+        private final OutputStream out;
+
+        private Connection(String host, int port) throws IOException {
+            this.socket = new Socket();
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout(READ_TIMEOUT_MILLIS);
+            socket.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MILLIS);
+            this.in = new BufferedInputStream(socket.getInputStream());
+            this.out = new BufferedOutputStream(socket.getOutputStream());
+        }
+
+        private Object send(String... command) throws IOException {
+            RespCodec.writeCommand(out, command);
+            return RespCodec.readReply(in);
+        }
+
+        private void close() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
@@ -0,0 +1,380 @@
+package chung.concurrency.lock.resp;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import chung.concurrency.lock.FencingTokenFloor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 외부 Redis 없이 프로세스 간 락 지연/처리량을 재기 위한 내장 TCP 락 서버.
+ * RESP2의 일부(PING, GET, SET key value [NX] [PX ms], DEL, INCR, EVAL)만 구현한다.
+ * Lua 해석기는 없으므로 EVAL은 {@link RespLockBackend}의 획득/해제 스크립트만 같은 의미의 Java 코드로 실행하고,
+ * 스크립트는 첫 key 기준 stripe 락 안에서 실행되어 Redis처럼 원자적이다.
+ * fence 카운터는 메모리에만 있으므로, 획득 스크립트가 새로 만드는 카운터는 부팅 시 읽은 {@link FencingTokenFloor} 다음 값에서 시작한다.
+ */
+@Component
+@ConditionalOnProperty(name = "lock.resp.embedded-server", havingValue = "true")
+public class RespLockServer {
+
+    private static final Logger log = LoggerFactory.getLogger(RespLockServer.class);
+    private static final long EXPIRE_SWEEP_INTERVAL_MILLIS = 1_000L;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 1_000L;
+    private static final int SCRIPT_STRIPES = 64;
+
+    private final int port;
+    private final Map<String, Entry> store = new ConcurrentHashMap<>();
+    private final Set<Socket> clients = ConcurrentHashMap.newKeySet();
+    private final Object[] scriptStripes = new Object[SCRIPT_STRIPES];
+    private final Map<String, Script> scripts = Map.of(
+        RespLockBackend.ACQUIRE_SCRIPT, this::acquireScript,
+        RespLockBackend.RELEASE_SCRIPT, this::releaseScript);
+    private final FencingTokenFloor fencingTokenFloor;
+    private volatile long fenceSeed;
+    private final ExecutorService connectionExecutor = Executors.newCachedThreadPool(daemon("resp-lock-conn"));
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(daemon("resp-lock-sweep"));
+    private ServerSocket serverSocket;
+
+    public RespLockServer(int port) {
+        this(port, FencingTokenFloor.NONE);
+    }
+
+    @Autowired
+    public RespLockServer(@Value("${lock.resp.port:6380}") int port,
+        ObjectProvider<FencingTokenFloor> fencingTokenFloor) {
+        this(port, fencingTokenFloor.getIfAvailable(() -> FencingTokenFloor.NONE));
+    }
+
+    public RespLockServer(int port, FencingTokenFloor fencingTokenFloor) {
+        this.port = port;
+        this.fencingTokenFloor = fencingTokenFloor;
+        for (int i = 0; i < SCRIPT_STRIPES; i++) {
+            scriptStripes[i] = new Object();
+        }
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        fenceSeed = fencingTokenFloor.highestRecorded();
+        serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(new InetSocketAddress(port));
+        connectionExecutor.execute(this::acceptLoop);
+        sweeper.scheduleWithFixedDelay(this::sweepExpired,
+            EXPIRE_SWEEP_INTERVAL_MILLIS, EXPIRE_SWEEP_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        log.info("embedded RESP lock server listening on port {}", getPort());
+    }
+
+    /**
+     * 소켓 읽기는 인터럽트에 반응하지 않으므로, 연결 스레드는 클라이언트 소켓을 닫아서 끝낸다.
+     */
+    @PreDestroy
+    public void stop() throws IOException {
+        sweeper.shutdownNow();
+        serverSocket.close();
+        for (Socket client : clients) {
+            closeQuietly(client);
+        }
+        connectionExecutor.shutdownNow();
+        try {
+            if (!connectionExecutor.awaitTermination(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                log.warn("lock client threads did not stop within {}ms", SHUTDOWN_TIMEOUT_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        clients.clear();
+    }
+
+    /**
+     * 현재 연결된 클라이언트 수.
+     */
+    public int clientCount() {
+        return clients.size();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                clients.add(socket);
+                if (serverSocket.isClosed()) {
+                    // stop()이 클라이언트 목록을 닫은 뒤에 들어온 연결
+                    closeQuietly(socket);
+                    return;
+                }
+                connectionExecutor.execute(() -> serve(socket));
+            } catch (SocketException closed) {
+                return;
+            } catch (IOException e) {
+                log.warn("failed to accept lock client", e);
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             InputStream in = new BufferedInputStream(socket.getInputStream());
+             OutputStream out = new BufferedOutputStream(socket.getOutputStream())) {
+            List<String> command;
+            while ((command = RespCodec.readCommand(in)) != null) {
+                dispatch(command, out);
+                out.flush();
+            }
+        } catch (IOException e) {
+            log.debug("lock client disconnected: {}", e.getMessage());
+        } finally {
+            clients.remove(socket);
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            log.debug("failed to close lock client: {}", e.getMessage());
+        }
+    }
+
+    private void dispatch(List<String> command, OutputStream out) throws IOException {
+        if (command.isEmpty()) {
+            RespCodec.writeError(out, "ERR empty command");
+            return;
+        }
+        String name = command.get(0).toUpperCase(Locale.ROOT);
+        switch (name) {
+            case "PING" -> RespCodec.writeSimpleString(out, "PONG");
+            case "GET" -> get(command, out);
+            case "SET" -> set(command, out);
+            case "DEL" -> delete(command, out);
+            case "INCR" -> increment(command, out);
+            case "EVAL" -> eval(command, out);
+            default -> RespCodec.writeError(out, "ERR unknown command '" + command.get(0) + "'");
+        }
+    }
+
+    private void get(List<String> command, OutputStream out) throws IOException {
+        if (command.size() != 2) {
+            RespCodec.writeError(out, "ERR wrong number of arguments for 'get' command");
+            return;
+        }
+        Entry entry = liveEntry(command.get(1));
+        RespCodec.writeBulk(out, entry == null ? null : entry.value());
+    }
+
+    private void set(List<String> command, OutputStream out) throws IOException {
+        if (command.size() < 3) {
+            RespCodec.writeError(out, "ERR wrong number of arguments for 'set' command");
+            return;
+        }
+        boolean onlyIfAbsent = false;
+        long ttlMillis = 0L;
+        for (int i = 3; i < command.size(); i++) {
+            String option = command.get(i).toUpperCase(Locale.ROOT);
+            if (option.equals("NX")) {
+                onlyIfAbsent = true;
+            } else if (option.equals("PX") && i + 1 < command.size() && isPositiveInteger(command.get(i + 1))) {
+                ttlMillis = Long.parseLong(command.get(++i));
+            } else {
+                RespCodec.writeError(out, "ERR syntax error");
+                return;
+            }
+        }
+        String key = command.get(1);
+        Entry candidate = new Entry(command.get(2), ttlMillis > 0 ? nowMillis() + ttlMillis : 0L);
+        if (!onlyIfAbsent) {
+            store.put(key, candidate);
+            RespCodec.writeSimpleString(out, "OK");
+            return;
+        }
+        long now = nowMillis();
+        Entry stored = store.compute(key, (k, current) ->
+            current == null || current.isExpired(now) ? candidate : current);
+        if (stored == candidate) {
+            RespCodec.writeSimpleString(out, "OK");
+        } else {
+            RespCodec.writeBulk(out, null);
+        }
+    }
+
+    private void delete(List<String> command, OutputStream out) throws IOException {
+        long deleted = 0;
+        for (int i = 1; i < command.size(); i++) {
+            if (store.remove(command.get(i)) != null) {
+                deleted++;
+            }
+        }
+        RespCodec.writeInteger(out, deleted);
+    }
+
+    private void eval(List<String> command, OutputStream out) throws IOException {
+        if (command.size() < 3 || !isNonNegativeInteger(command.get(2))
+            || Integer.parseInt(command.get(2)) > command.size() - 3) {
+            RespCodec.writeError(out, "ERR wrong number of arguments for 'eval' command");
+            return;
+        }
+        Script script = scripts.get(command.get(1));
+        if (script == null) {
+            RespCodec.writeError(out, "ERR unsupported script: the embedded lock server only runs the lock scripts");
+            return;
+        }
+        int keyCount = Integer.parseInt(command.get(2));
+        List<String> keys = command.subList(3, 3 + keyCount);
+        List<String> args = command.subList(3 + keyCount, command.size());
+        if (keys.isEmpty()) {
+            RespCodec.writeError(out, "ERR lock scripts need at least one key");
+            return;
+        }
+        Long reply;
+        synchronized (scriptStripes[Math.floorMod(keys.get(0).hashCode(), SCRIPT_STRIPES)]) {
+            reply = script.run(keys, args);
+        }
+        if (reply == null) {
+            RespCodec.writeError(out, "ERR wrong arguments for lock script");
+            return;
+        }
+        RespCodec.writeInteger(out, reply);
+    }
+
+    /**
+     * SET KEYS[1] ARGV[1] NX PX ARGV[2]가 성공했을 때만 INCR KEYS[2]. 점유하지 못하면 0.
+     */
+    private Long acquireScript(List<String> keys, List<String> args) {
+        if (keys.size() != 2 || args.size() != 2 || !isPositiveInteger(args.get(1))) {
+            return null;
+        }
+        long now = nowMillis();
+        Entry candidate = new Entry(args.get(0), now + Long.parseLong(args.get(1)));
+        Entry stored = store.compute(keys.get(0), (k, current) ->
+            current == null || current.isExpired(now) ? candidate : current);
+        if (stored != candidate) {
+            return 0L;
+        }
+        Entry fence = store.compute(keys.get(1), (k, current) -> current == null || current.isExpired(now)
+            ? new Entry(Long.toString(fenceSeed + 1), 0L)
+            : new Entry(Long.toString(Long.parseLong(current.value()) + 1), current.expiresAtMillis()));
+        return Long.parseLong(fence.value());
+    }
+
+    /**
+     * GET KEYS[1] == ARGV[1]일 때만 DEL KEYS[1].
+     */
+    private Long releaseScript(List<String> keys, List<String> args) {
+        if (keys.size() != 1 || args.size() != 1) {
+            return null;
+        }
+        String expected = args.get(0);
+        long now = nowMillis();
+        boolean[] deleted = new boolean[1];
+        store.computeIfPresent(keys.get(0), (k, current) -> {
+            if (!current.isExpired(now) && current.value().equals(expected)) {
+                deleted[0] = true;
+                return null;
+            }
+            return current;
+        });
+        return deleted[0] ? 1L : 0L;
+    }
+
+    private void increment(List<String> command, OutputStream out) throws IOException {
+        if (command.size() != 2) {
+            RespCodec.writeError(out, "ERR wrong number of arguments for 'incr' command");
+            return;
+        }
+        long now = nowMillis();
+        Entry incremented;
+        try {
+            incremented = store.compute(command.get(1), (k, current) -> {
+                if (current == null || current.isExpired(now)) {
+                    return new Entry("1", 0L);
+                }
+                return new Entry(Long.toString(Long.parseLong(current.value()) + 1), current.expiresAtMillis());
+            });
+        } catch (NumberFormatException e) {
+            RespCodec.writeError(out, "ERR value is not an integer or out of range");
+            return;
+        }
+        RespCodec.writeInteger(out, Long.parseLong(incremented.value()));
+    }
+
+    private Entry liveEntry(String key) {
+        Entry entry = store.get(key);
+        if (entry != null && entry.isExpired(nowMillis())) {
+            store.remove(key, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    private void sweepExpired() {
+        long now = nowMillis();
+        store.entrySet().removeIf(entry -> entry.getValue().isExpired(now));
+    }
+
+    private static boolean isNonNegativeInteger(String value) {
+        return !value.isEmpty() && value.length() < 10 && value.chars().allMatch(Character::isDigit);
+    }
+
+    private static boolean isPositiveInteger(String value) {
+        return !value.isEmpty() && value.length() < 19 && value.chars().allMatch(Character::isDigit)
+            && Long.parseLong(value) > 0;
+    }
+
+    private static long nowMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 지원하는 Lua 스크립트 하나와 같은 동작. 인자가 맞지 않으면 null.
+     */
+    @FunctionalInterface
+    private interface Script {
+        Long run(List<String> keys, List<String> args);
+    }
+
+    private record Entry(String value, long expiresAtMillis) {
+
+        boolean isExpired(long nowMillis) {
+            return expiresAtMillis != 0L && nowMillis >= expiresAtMillis;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package chung.concurrency.lock.resp;
+
+import java.io.IOException;
+
+public class RespProtocolException extends IOException {
+
+    public RespProtocolException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,140 @@
+package chung.concurrency.point.application;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * 포인트별 낙관적 락 충돌률 기반 서킷 브레이커.
+ * 시간 창 안에서 시도 수가 minSamples 이상이고 충돌률이 임계치를 넘으면 openDuration 동안 열려,
+ * 그동안의 호출은 DB를 건드리지 않고 바로 혼잡 알림을 받는다. 열린 시간이 지나면 새 창에서 다시 집계한다.
+ * {@link #trip}으로 수동 차단한 포인트는 openDuration과 무관하게 {@link #reset} 전까지 열려 있다.
+ */
+@Component
+public class ConflictCircuitBreaker implements PointOptimisticService.RetryListener {
+
+    private static final long DEFAULT_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final int DEFAULT_MIN_SAMPLES = 100;
+    private static final double DEFAULT_CONFLICT_RATE_THRESHOLD = 0.9;
+    private static final long DEFAULT_OPEN_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+    private static final int MAX_TRACKED_POINTS = 10_000;
+
+    private final long windowNanos;
+    private final int minSamples;
+    private final double conflictRateThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+    private final Map<Long, Window> windows = new ConcurrentHashMap<>();
+
+    public ConflictCircuitBreaker() {
+        this(DEFAULT_WINDOW_NANOS, DEFAULT_MIN_SAMPLES, DEFAULT_CONFLICT_RATE_THRESHOLD, DEFAULT_OPEN_NANOS,
+            System::nanoTime);
+    }
+
+    ConflictCircuitBreaker(long windowNanos, int minSamples, double conflictRateThreshold, long openNanos,
+        LongSupplier nanoClock) {
+        this.windowNanos = windowNanos;
+        this.minSamples = minSamples;
+        this.conflictRateThreshold = conflictRateThreshold;
+        this.openNanos = openNanos;
+        this.nanoClock = nanoClock;
+    }
+
+    public boolean allows(Long pointId) {
+        Window window = windows.get(pointId);
+        return window == null || window.allows(nanoClock.getAsLong());
+    }
+
+    /**
+     * 운영자가 특정 포인트를 수동으로 차단한다. reset 전까지 풀리지 않는다.
+     */
+    public void trip(Long pointId) {
+        windowOf(pointId).trip();
+    }
+
+    public void reset(Long pointId) {
+        windows.remove(pointId);
+    }
+
+    @Override
+    public void onAttempt(int attempt, int maxRetry) {
+    }
+
+    @Override
+    public void onSuccess(Long pointId, int attempt) {
+        windowOf(pointId).record(false, nanoClock.getAsLong());
+    }
+
+    @Override
+    public void onConflict(Long pointId, int attempt) {
+        windowOf(pointId).record(true, nanoClock.getAsLong());
+    }
+
+    private Window windowOf(Long pointId) {
+        if (windows.size() >= MAX_TRACKED_POINTS && !windows.containsKey(pointId)) {
+            windows.values().removeIf(window -> window.isIdle(nanoClock.getAsLong()));
+        }
+        return windows.computeIfAbsent(pointId, id -> new Window(nanoClock.getAsLong()));
+    }
+
+    private final class Window {
+
+        private long startedAt;
+        private long openUntil;
+        private boolean open;
+        private boolean tripped;
+        private int attempts;
+        private int conflicts;
+
+        private Window(long now) {
+            this.startedAt = now;
+        }
+
+        synchronized boolean allows(long now) {
+            if (open && !tripped && now - openUntil >= 0) {
+                open = false;
+                restart(now);
+            }
+            return !open;
+        }
+
+        synchronized void record(boolean conflict, long now) {
+            if (open) {
+                return;
+            }
+            if (now - startedAt >= windowNanos) {
+                restart(now);
+            }
+            attempts++;
+            if (conflict) {
+                conflicts++;
+            }
+            if (attempts >= minSamples && (double) conflicts / attempts > conflictRateThreshold) {
+                open(now);
+            }
+        }
+
+        synchronized void open(long now) {
+            open = true;
+            openUntil = now + openNanos;
+        }
+
+        synchronized void trip() {
+            open = true;
+            tripped = true;
+        }
+
+        synchronized boolean isIdle(long now) {
+            return !open && now - startedAt >= windowNanos;
+        }
+
+        private void restart(long now) {
+            startedAt = now;
+            attempts = 0;
+            conflicts = 0;
+        }
+    }
+}
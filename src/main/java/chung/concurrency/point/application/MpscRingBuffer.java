@@ -0,0 +1,73 @@
+package chung.concurrency.point.application;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 다중 생산자 / 단일 소비자(MPSC) 고정 크기 링 버퍼.
+ * 생산자는 producerIndex를 CAS로 선점한 뒤 슬롯에 값을 게시하고,
+ * 소비자는 자신만 쓰는 consumerIndex를 따라가며 슬롯을 비운다. 락을 사용하지 않는다.
+ */
+final class MpscRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> buffer;
+    private final int mask;
+    private final int capacity;
+    private final AtomicLong producerIndex = new AtomicLong();
+    private final AtomicLong consumerIndex = new AtomicLong();
+
+    MpscRingBuffer(int requestedCapacity) {
+        if (requestedCapacity < 2) {
+            throw new IllegalArgumentException("capacity must be >= 2: " + requestedCapacity);
+        }
+        this.capacity = Integer.highestOneBit(requestedCapacity - 1) << 1;
+        this.mask = capacity - 1;
+        this.buffer = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * 버퍼가 가득 차 있으면 false를 반환한다. 대기 정책은 호출자가 결정한다.
+     */
+    boolean offer(E element) {
+        long index;
+        do {
+            index = producerIndex.get();
+            if (index - consumerIndex.get() >= capacity) {
+                return false;
+            }
+        } while (!producerIndex.compareAndSet(index, index + 1));
+        buffer.lazySet(offset(index), element);
+        return true;
+    }
+
+    /**
+     * 소비자 스레드 전용. 최대 limit개를 꺼내 target에 담고, 꺼낸 개수를 반환한다.
+     * 슬롯을 선점했지만 아직 게시하지 않은 생산자가 있으면 그 지점에서 멈춘다.
+     */
+    int drainTo(List<? super E> target, int limit) {
+        long index = consumerIndex.get();
+        int drained = 0;
+        while (drained < limit) {
+            int offset = offset(index);
+            E element = buffer.get(offset);
+            if (element == null) {
+                break;
+            }
+            buffer.lazySet(offset, null);
+            target.add(element);
+            index++;
+            drained++;
+        }
+        consumerIndex.lazySet(index);
+        return drained;
+    }
+
+    boolean isEmpty() {
+        return consumerIndex.get() == producerIndex.get();
+    }
+
+    private int offset(long index) {
+        return (int) index & mask;
+    }
+}
@@ -0,0 +1,29 @@
+package chung.concurrency.point.application;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import chung.concurrency.point.domain.Point;
+import chung.concurrency.point.domain.PointChangeEvent;
+import chung.concurrency.point.domain.PointChangeEventRepository;
+
+/**
+ * 충전 트랜잭션 안에서 outbox 이벤트를 남긴다. 포인트 행의 변경이 flush된 뒤(행 락을 쥔 상태)에 호출해야
+ * 같은 포인트의 이벤트 id가 커밋 순서대로 매겨진다.
+ */
+@Component
+public class PointChangeOutbox {
+
+    private final PointChangeEventRepository pointChangeEventRepository;
+
+    public PointChangeOutbox(PointChangeEventRepository pointChangeEventRepository) {
+        this.pointChangeEventRepository = pointChangeEventRepository;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(Point charged, long amount) {
+        pointChangeEventRepository.save(
+            new PointChangeEvent(charged.getId(), amount, charged.getBalance(), charged.getVersion()));
+    }
+}
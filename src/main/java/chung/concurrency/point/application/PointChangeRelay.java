@@ -0,0 +1,359 @@
+package chung.concurrency.point.application;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import chung.concurrency.point.domain.PointChangeEvent;
+import chung.concurrency.point.domain.PointChangeEventRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * outbox를 하나의 스레드가 id 순으로 읽어 구독자에게 배치 단위로 밀어준다.
+ * 최신까지 따라온 구독자들은 틱마다 한 번의 조회 결과를 공유하고, 재접속 등으로 뒤처진 구독자만 자기 위치부터 따로 읽는다.
+ * 구독자마다 크기가 정해진 버퍼를 두고 전달은 별도 스레드에서 하므로, 느린 구독자가 relay 스레드와 다른 구독자를 붙잡지 않는다.
+ * 버퍼가 넘친 구독자는 끊고 onDropped로 알리며, 구독자는 마지막으로 받은 id에서 다시 붙으면 된다.
+ * AUTO_INCREMENT id는 커밋 순서와 다를 수 있으므로, 빈 id가 보이면 그 앞까지만 확정하고(watermark)
+ * grace 시간이 지나도 채워지지 않으면 건너뛴다. 건너뛴 id는 세어 두고 한동안 다시 조회해,
+ * 늦게 커밋된 이벤트는 더 큰 id 뒤에라도 전달한다. 같은 포인트의 쓰기는 행 락으로 직렬화되므로 포인트별 순서는 유지된다.
+ */
+@Component
+public class PointChangeRelay implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(PointChangeRelay.class);
+    private static final long DEFAULT_POLL_INTERVAL_MILLIS = 100L;
+    private static final int DEFAULT_BATCH_SIZE = 500;
+    private static final int DEFAULT_SUBSCRIBER_BUFFER_SIZE = 2_000;
+    static final long DEFAULT_GAP_GRACE_NANOS = TimeUnit.SECONDS.toNanos(2);
+    static final long GAP_RESCAN_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long GAP_RESCAN_WINDOW_NANOS = TimeUnit.MINUTES.toNanos(5);
+    private static final int MAX_RESCANNED_IDS = 10_000;
+    private static final Duration DEFAULT_RETENTION = Duration.ofHours(24);
+    private static final long PURGE_INTERVAL_MILLIS = 60_000L;
+
+    private final PointChangeEventRepository pointChangeEventRepository;
+    private final int subscriberBufferSize;
+    private final Executor deliveryExecutor;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService relayThread = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "point-change-relay");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile long watermark;
+    private long gapExpectedId;
+    private long gapObservedAt;
+    private final Map<Long, Long> skippedAt = new LinkedHashMap<>();
+    private long rescannedAt;
+    private final AtomicLong skippedIdCount = new AtomicLong();
+    private final AtomicLong lateEventCount = new AtomicLong();
+    private final AtomicLong droppedSubscriberCount = new AtomicLong();
+
+    @Autowired
+    public PointChangeRelay(PointChangeEventRepository pointChangeEventRepository) {
+        this(pointChangeEventRepository, DEFAULT_SUBSCRIBER_BUFFER_SIZE, Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "point-change-delivery");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    PointChangeRelay(PointChangeEventRepository pointChangeEventRepository, int subscriberBufferSize,
+        Executor deliveryExecutor) {
+        this.pointChangeEventRepository = pointChangeEventRepository;
+        this.subscriberBufferSize = subscriberBufferSize;
+        this.deliveryExecutor = deliveryExecutor;
+    }
+
+    @PostConstruct
+    public void start() {
+        seekToLatest();
+        relayThread.scheduleWithFixedDelay(this::relaySafely,
+            DEFAULT_POLL_INTERVAL_MILLIS, DEFAULT_POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        relayThread.scheduleWithFixedDelay(this::purgeSafely,
+            PURGE_INTERVAL_MILLIS, PURGE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        relayThread.shutdownNow();
+        if (deliveryExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+        subscriptions.clear();
+    }
+
+    void seekToLatest() {
+        watermark = pointChangeEventRepository.findMaxId().orElse(0L);
+    }
+
+    /**
+     * 빈틈 없이 확정되어 구독자에게 전달 가능한 마지막 이벤트 id.
+     */
+    public long watermark() {
+        return watermark;
+    }
+
+    /**
+     * afterId 다음 이벤트부터 전달한다. 같은 포인트의 이벤트는 version 순서로 도착한다.
+     */
+    public Subscription subscribe(long afterId, Listener listener) {
+        return subscribe(afterId, listener, () -> {
+        });
+    }
+
+    /**
+     * 버퍼가 넘쳐 구독이 끊기면 onDropped를 부른다.
+     */
+    public Subscription subscribe(long afterId, Listener listener, Runnable onDropped) {
+        Subscription subscription = new Subscription(afterId, listener, onDropped);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("point.change.subscribers", subscriptions, List::size)
+            .description("변경 피드 구독자 수")
+            .register(registry);
+        FunctionCounter.builder("point.change.subscribers.dropped", droppedSubscriberCount, AtomicLong::get)
+            .description("버퍼가 넘쳐 끊긴 구독자 수")
+            .register(registry);
+        FunctionCounter.builder("point.change.gap.skipped", skippedIdCount, AtomicLong::get)
+            .description("grace 안에 커밋되지 않아 건너뛴 outbox id 수")
+            .register(registry);
+        FunctionCounter.builder("point.change.gap.late", lateEventCount, AtomicLong::get)
+            .description("건너뛴 뒤 늦게 커밋되어 다시 전달한 이벤트 수")
+            .register(registry);
+    }
+
+    long skippedIdCount() {
+        return skippedIdCount.get();
+    }
+
+    long lateEventCount() {
+        return lateEventCount.get();
+    }
+
+    private void relaySafely() {
+        try {
+            relay(System.nanoTime());
+        } catch (RuntimeException e) {
+            log.warn("point change relay failed", e);
+        }
+    }
+
+    void relay(long nowNanoTime) {
+        long from = watermark;
+        List<PointChangeEvent> committed = committedPrefix(
+            pointChangeEventRepository.findByIdGreaterThanOrderByIdAsc(from, PageRequest.ofSize(DEFAULT_BATCH_SIZE)),
+            nowNanoTime);
+        if (!committed.isEmpty()) {
+            watermark = committed.get(committed.size() - 1).getId();
+        }
+        for (Subscription subscription : subscriptions) {
+            if (subscription.cursor >= from) {
+                subscription.offer(committed);
+            } else if (subscription.remainingCapacity() > 0) {
+                // 뒤처진 구독자는 버퍼에 남은 만큼만 읽으므로 따라잡는 중에는 넘치지 않는다.
+                subscription.offer(pointChangeEventRepository.findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(
+                    subscription.cursor, watermark,
+                    PageRequest.ofSize(Math.min(DEFAULT_BATCH_SIZE, subscription.remainingCapacity()))));
+            }
+        }
+        rescanSkipped(nowNanoTime);
+    }
+
+    private List<PointChangeEvent> committedPrefix(List<PointChangeEvent> batch, long nowNanoTime) {
+        long expectedId = watermark + 1;
+        int committed = 0;
+        for (PointChangeEvent event : batch) {
+            if (event.getId() != expectedId) {
+                // 더 작은 id를 받은 트랜잭션이 아직 커밋 전이거나 롤백되었다.
+                if (gapExpectedId != expectedId) {
+                    gapExpectedId = expectedId;
+                    gapObservedAt = nowNanoTime;
+                }
+                if (nowNanoTime - gapObservedAt < DEFAULT_GAP_GRACE_NANOS) {
+                    break;
+                }
+                skip(expectedId, event.getId() - 1, nowNanoTime);
+            }
+            expectedId = event.getId() + 1;
+            committed++;
+        }
+        return batch.subList(0, committed);
+    }
+
+    private void skip(long fromId, long toId, long nowNanoTime) {
+        long count = toId - fromId + 1;
+        skippedIdCount.addAndGet(count);
+        log.warn("skipping point change ids {}..{} not committed within {}ms; rescanning for {}s", fromId, toId,
+            TimeUnit.NANOSECONDS.toMillis(DEFAULT_GAP_GRACE_NANOS), TimeUnit.NANOSECONDS.toSeconds(GAP_RESCAN_WINDOW_NANOS));
+        if (skippedAt.isEmpty()) {
+            rescannedAt = nowNanoTime;
+        }
+        for (long id = fromId; id <= toId && skippedAt.size() < MAX_RESCANNED_IDS; id++) {
+            skippedAt.put(id, nowNanoTime);
+        }
+    }
+
+    /**
+     * 건너뛴 id를 다시 조회해 그사이 커밋된 이벤트를 이미 그 id를 지나친 구독자에게 전달한다.
+     * 아직 지나치지 않은 구독자는 범위 조회로 자연히 받는다.
+     */
+    private void rescanSkipped(long nowNanoTime) {
+        if (skippedAt.isEmpty() || nowNanoTime - rescannedAt < GAP_RESCAN_INTERVAL_NANOS) {
+            return;
+        }
+        rescannedAt = nowNanoTime;
+        for (PointChangeEvent late : pointChangeEventRepository.findAllById(skippedAt.keySet())) {
+            skippedAt.remove(late.getId());
+            lateEventCount.incrementAndGet();
+            log.info("delivering late point change id={} after skipping it", late.getId());
+            for (Subscription subscription : subscriptions) {
+                subscription.offerLate(late);
+            }
+        }
+        Iterator<Long> observedAt = skippedAt.values().iterator();
+        while (observedAt.hasNext() && nowNanoTime - observedAt.next() >= GAP_RESCAN_WINDOW_NANOS) {
+            // 트랜잭션 타임아웃보다 오래 비어 있으면 롤백된 id로 확정한다.
+            observedAt.remove();
+        }
+    }
+
+    private void purgeSafely() {
+        try {
+            int purged = pointChangeEventRepository.deleteCreatedBefore(Instant.now().minus(DEFAULT_RETENTION));
+            if (purged > 0) {
+                log.debug("purged {} point change events", purged);
+            }
+        } catch (RuntimeException e) {
+            log.warn("point change purge failed", e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Listener {
+        void onEvents(List<PointChangeEvent> events) throws Exception;
+    }
+
+    public final class Subscription {
+
+        private final Listener listener;
+        private final Runnable onDropped;
+        private final BlockingQueue<PointChangeEvent> buffer = new ArrayBlockingQueue<>(subscriberBufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean active = true;
+        /** 버퍼에 넣은 마지막 id. relay 스레드만 쓴다. */
+        private volatile long cursor;
+
+        private Subscription(long afterId, Listener listener, Runnable onDropped) {
+            this.cursor = afterId;
+            this.listener = listener;
+            this.onDropped = onDropped;
+        }
+
+        public void cancel() {
+            active = false;
+            subscriptions.remove(this);
+        }
+
+        private int remainingCapacity() {
+            return buffer.remainingCapacity();
+        }
+
+        private void offer(List<PointChangeEvent> events) {
+            List<PointChangeEvent> pending = events.stream()
+                .filter(event -> event.getId() > cursor)
+                .toList();
+            if (pending.isEmpty() || !active) {
+                return;
+            }
+            if (buffer.remainingCapacity() < pending.size()) {
+                drop();
+                return;
+            }
+            // 넣는 쪽은 relay 스레드 하나뿐이라 확인한 여유가 줄지 않는다.
+            buffer.addAll(pending);
+            cursor = pending.get(pending.size() - 1).getId();
+            scheduleDrain();
+        }
+
+        private void offerLate(PointChangeEvent event) {
+            if (event.getId() > cursor || !active) {
+                return;
+            }
+            if (!buffer.offer(event)) {
+                drop();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void drop() {
+            droppedSubscriberCount.incrementAndGet();
+            log.debug("dropping slow point change subscriber at cursor={}", cursor);
+            cancel();
+            onDropped.run();
+        }
+
+        private void scheduleDrain() {
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                deliveryExecutor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+                cancel();
+            }
+        }
+
+        private void drain() {
+            List<PointChangeEvent> batch = new ArrayList<>();
+            try {
+                while (active && buffer.drainTo(batch, DEFAULT_BATCH_SIZE) > 0) {
+                    listener.onEvents(List.copyOf(batch));
+                    batch.clear();
+                }
+            } catch (Exception e) {
+                // 끊어진 구독자는 Last-Event-ID로 다시 붙으면 된다.
+                log.debug("dropping point change subscriber: {}", e.getMessage());
+                cancel();
+            } finally {
+                draining.set(false);
+            }
+            if (active && !buffer.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package chung.concurrency.point.application;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+
+import chung.concurrency.point.domain.Point;
+
+/**
+ * 이름으로 고르는 충전 전략 목록. HTTP 충전 API, 부팅 예열, 클러스터 하네스가 모두 이 목록을 쓰므로
+ * 전략을 추가하면 세 곳에 한 번에 반영된다.
+ */
+@Component
+public class PointChargeStrategies {
+
+    private final Map<String, Charge> strategies = new LinkedHashMap<>();
+
+    public PointChargeStrategies(PointSynchronizedFacade pointSynchronizedFacade,
+        PointReentrantLockFacade pointReentrantLockFacade, PointPessimisticService pointPessimisticService,
+        PointOptimisticService pointOptimisticService, PointRedisLockFacade pointRedisLockFacade,
+        PointPartitionedExecutor pointPartitionedExecutor) {
+        strategies.put("synchronized", pointSynchronizedFacade::charge);
+        strategies.put("reentrant", pointReentrantLockFacade::charge);
+        strategies.put("pessimistic", pointPessimisticService::charge);
+        strategies.put("optimistic", pointOptimisticService::charge);
+        strategies.put("optimistic-merge", pointOptimisticService::chargeMergingOnConflict);
+        strategies.put("redis-lock", pointRedisLockFacade::charge);
+        strategies.put("partitioned", pointPartitionedExecutor::charge);
+    }
+
+    /**
+     * @throws IllegalArgumentException 등록되지 않은 전략 이름
+     */
+    public Charge get(String name) {
+        Charge charge = strategies.get(name);
+        if (charge == null) {
+            throw new IllegalArgumentException("unknown strategy: " + name + ", expected " + strategies.keySet());
+        }
+        return charge;
+    }
+
+    /**
+     * 등록 순서대로의 전략 이름.
+     */
+    public Set<String> names() {
+        return Collections.unmodifiableSet(strategies.keySet());
+    }
+
+    @FunctionalInterface
+    public interface Charge {
+        Point charge(Long pointId, long amount);
+    }
+}
@@ -0,0 +1,24 @@
+package chung.concurrency.point.application;
+
+import org.springframework.stereotype.Component;
+
+import chung.concurrency.lock.FencingTokenFloor;
+import chung.concurrency.point.domain.PointRepository;
+
+/**
+ * points.fence_token의 최댓값. 락 저장소가 부팅할 때 한 번 읽어 토큰 카운터의 시작점으로 쓴다.
+ */
+@Component
+public class PointFencingTokenFloor implements FencingTokenFloor {
+
+    private final PointRepository pointRepository;
+
+    public PointFencingTokenFloor(PointRepository pointRepository) {
+        this.pointRepository = pointRepository;
+    }
+
+    @Override
+    public long highestRecorded() {
+        return pointRepository.findMaxFenceToken();
+    }
+}
@@ -0,0 +1,8 @@
+package chung.concurrency.point.application;
+
+public class PointFencingTokenRejectedException extends RuntimeException {
+
+    public PointFencingTokenRejectedException(Long pointId, long fencingToken) {
+        super("만료된 락 또는 동시 쓰기로 포인트 충전이 거절되었습니다. id=" + pointId + ", fencingToken=" + fencingToken);
+    }
+}
@@ -1,66 +1,165 @@
 package chung.concurrency.point.application;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.ThreadLocalRandom;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import chung.concurrency.contention.ContentionKind;
+import chung.concurrency.contention.ContentionRecorder;
+import chung.concurrency.datasource.ConnectionHoldContext;
+import chung.concurrency.deadline.RequestDeadline;
 import chung.concurrency.point.domain.Point;
 import chung.concurrency.point.domain.PointExceptionSupplier;
 import chung.concurrency.point.domain.PointRepository;
+import chung.concurrency.retry.BackoffPolicy;
+import chung.concurrency.schedule.SchedulePoint;
 
+/**
+ * 낙관적 락 + 지수 백오프 + 지터 전략.
+ * 재시도는 {@link RetryBudget}이 허용하는 만큼만 하고, 충돌률이 지나치게 높은 포인트는
+ * {@link ConflictCircuitBreaker}가 열려 DB에 닿기 전에 혼잡 알림을 반환한다.
+ * merge-on-conflict 모드에서는 version 충돌 시 잠들지 않고 최신 version에 delta를 조건부 UPDATE로 바로 다시 적용하며,
+ * 그마저 연달아 실패할 때만 백오프한다.
+ * 백오프는 재시도 한도(10초)와 요청 기한 중 이른 쪽을 넘기지 않으며, 요청 기한 때문에 멈추면 Busy 대신 기한 초과로 알린다.
+ */
 @Service
 public class PointOptimisticService {
 
     private static final int DEFAULT_MAX_RETRY = 5;
-    private static final long DEFAULT_INITIAL_BACKOFF_MILLIS = 50L;
-    private static final long DEFAULT_MAX_BACKOFF_MILLIS = 800L;
+    private static final Duration DEFAULT_INITIAL_BACKOFF = Duration.ofMillis(50L);
+    private static final Duration DEFAULT_MAX_BACKOFF = Duration.ofMillis(800L);
+    private static final Duration DEFAULT_RETRY_DEADLINE = Duration.ofSeconds(10L);
+    private static final int DEFAULT_IMMEDIATE_MERGE_ATTEMPTS = 3;
 
     private final PointRepository pointRepository;
+    private final PointChangeOutbox pointChangeOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final RetryBudget retryBudget;
+    private final ConflictCircuitBreaker circuitBreaker;
+    private final ContentionRecorder contentionRecorder;
     private final List<RetryListener> retryListeners = new CopyOnWriteArrayList<>();
+    private final BackoffPolicy backoffPolicy = BackoffPolicy.fullJitter(DEFAULT_INITIAL_BACKOFF, DEFAULT_MAX_BACKOFF);
 
-    public PointOptimisticService(PointRepository pointRepository) {
+    private final boolean mergeOnConflict;
+
+    public PointOptimisticService(PointRepository pointRepository, PointChangeOutbox pointChangeOutbox,
+        TransactionTemplate transactionTemplate, RetryBudget retryBudget, ConflictCircuitBreaker circuitBreaker,
+        ContentionRecorder contentionRecorder,
+        @Value("${point.optimistic.merge-on-conflict:false}") boolean mergeOnConflict) {
         this.pointRepository = pointRepository;
+        this.pointChangeOutbox = pointChangeOutbox;
+        this.transactionTemplate = transactionTemplate;
+        this.retryBudget = retryBudget;
+        this.circuitBreaker = circuitBreaker;
+        this.contentionRecorder = contentionRecorder;
+        this.mergeOnConflict = mergeOnConflict;
+        retryListeners.add(retryBudget);
+        retryListeners.add(circuitBreaker);
     }
 
     public Point charge(Long pointId, long amount) {
+        if (mergeOnConflict) {
+            return chargeMergingOnConflict(pointId, amount);
+        }
         return chargeWithRetryLimit(pointId, amount, DEFAULT_MAX_RETRY);
     }
 
     public Point chargeWithRetryLimit(Long pointId, long amount, int maxRetry) {
-        long backoff = DEFAULT_INITIAL_BACKOFF_MILLIS;
+        return chargeWithRetry(pointId, amount, maxRetry, false);
+    }
+
+    public Point chargeMergingOnConflict(Long pointId, long amount) {
+        return chargeWithRetry(pointId, amount, DEFAULT_MAX_RETRY, true);
+    }
+
+    private Point chargeWithRetry(Long pointId, long amount, int maxRetry, boolean merge) {
+        long deadlineNanos = System.nanoTime() + DEFAULT_RETRY_DEADLINE.toNanos();
+        BackoffPolicy.Backoff backoff = backoffPolicy.newBackoff();
         for (int attempt = 1; attempt <= maxRetry; attempt++) {
             notifyRetryListeners(attempt, maxRetry);
+            if (!circuitBreaker.allows(pointId)) {
+                throw new PointConcurrencyBusyException(pointId);
+            }
+            long startedAt = System.nanoTime();
             try {
-                return doCharge(pointId, amount);
+                boolean applyDelta = merge && attempt > 1;
+                Point charged = ConnectionHoldContext.callAs("optimistic",
+                    () -> applyDelta ? mergeDelta(pointId, amount) : doCharge(pointId, amount));
+                backoffPolicy.recordLatency(System.nanoTime() - startedAt);
+                notifySuccess(pointId, attempt);
+                return charged;
             } catch (OptimisticLockingFailureException ex) {
-                if (attempt == maxRetry) {
+                contentionRecorder.record(ContentionKind.OPTIMISTIC_CONFLICT, pointId, System.nanoTime() - startedAt);
+                notifyConflict(pointId, attempt);
+                if (merge && attempt == 1 && maxRetry > 1) {
+                    // 첫 충돌은 잠들지 않고 바로 delta 병합으로 넘어간다.
+                    continue;
+                }
+                if (attempt == maxRetry || !retryBudget.tryAcquireRetry(pointId)) {
+                    throw new PointConcurrencyBusyException(pointId);
+                }
+                if (!sleepBefore(pointId, backoff, RequestDeadline.boundNanoTime(deadlineNanos))) {
+                    if (RequestDeadline.limits(deadlineNanos)) {
+                        throw RequestDeadline.current().exceeded("optimistic backoff");
+                    }
                     throw new PointConcurrencyBusyException(pointId);
                 }
-                sleepWithJitter(backoff);
-                backoff = Math.min(backoff * 2, DEFAULT_MAX_BACKOFF_MILLIS);
             }
         }
         throw new IllegalStateException("unreachable");
     }
 
-    @Transactional
-    protected Point doCharge(Long pointId, long amount) {
-        Point point = pointRepository.findById(pointId)
-            .orElseThrow(PointExceptionSupplier.notFound(pointId));
-        long currentBalance = point.getBalance();
-        point.setBalance(currentBalance + amount);
-        return pointRepository.save(point);
+    /**
+     * 조회와 저장, outbox 기록을 한 트랜잭션으로 묶는다. 자기 호출이라 @Transactional 대신 TransactionTemplate을 쓴다.
+     * version 충돌은 flush 시점에 드러나므로 outbox 행은 충돌하지 않은 쓰기에만 남는다.
+     */
+    private Point doCharge(Long pointId, long amount) {
+        return transactionTemplate.execute(status -> {
+            Point point = pointRepository.findById(pointId)
+                .orElseThrow(PointExceptionSupplier.notFound(pointId));
+            long currentBalance = point.getBalance();
+            SchedulePoint.CHARGE_AFTER_READ.reach();
+            point.setBalance(currentBalance + amount);
+            Point charged = pointRepository.saveAndFlush(point);
+            pointChangeOutbox.append(charged, amount);
+            return charged;
+        });
     }
 
-    private void sleepWithJitter(long backoffMillis) {
-        long jitter = ThreadLocalRandom.current().nextLong(backoffMillis + 1);
+    /**
+     * 최신 version을 읽어 조건부 UPDATE로 delta를 더한다. 그 사이 다른 쓰기가 끼어들면 잠들지 않고 곧바로 다시 시도한다.
+     */
+    private Point mergeDelta(Long pointId, long amount) {
+        for (int i = 0; i < DEFAULT_IMMEDIATE_MERGE_ATTEMPTS; i++) {
+            Point merged = transactionTemplate.execute(status -> {
+                long version = pointRepository.findVersionById(pointId)
+                    .orElseThrow(PointExceptionSupplier.notFound(pointId));
+                SchedulePoint.CHARGE_AFTER_READ.reach();
+                if (pointRepository.addBalanceIfVersion(pointId, amount, version) == 0) {
+                    return null;
+                }
+                Point charged = pointRepository.findById(pointId)
+                    .orElseThrow(PointExceptionSupplier.notFound(pointId));
+                pointChangeOutbox.append(charged, amount);
+                return charged;
+            });
+            if (merged != null) {
+                return merged;
+            }
+        }
+        throw new OptimisticLockingFailureException("version kept changing while merging delta. id=" + pointId);
+    }
+
+    private boolean sleepBefore(Long pointId, BackoffPolicy.Backoff backoff, long deadlineNanos) {
         try {
-            Thread.sleep(jitter);
-        } catch (InterruptedException ignored) {
+            return backoff.sleepBefore(deadlineNanos);
+        } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
+            throw new PointConcurrencyBusyException(pointId);
         }
     }
 
@@ -75,8 +174,26 @@ public class PointOptimisticService {
         }
     }
 
+    private void notifySuccess(Long pointId, int attempt) {
+        for (RetryListener listener : retryListeners) {
+            listener.onSuccess(pointId, attempt);
+        }
+    }
+
+    private void notifyConflict(Long pointId, int attempt) {
+        for (RetryListener listener : retryListeners) {
+            listener.onConflict(pointId, attempt);
+        }
+    }
+
     @FunctionalInterface
     public interface RetryListener {
         void onAttempt(int attempt, int maxRetry);
+
+        default void onSuccess(Long pointId, int attempt) {
+        }
+
+        default void onConflict(Long pointId, int attempt) {
+        }
     }
 }
@@ -0,0 +1,336 @@
+package chung.concurrency.point.application;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.stereotype.Service;
+
+import chung.concurrency.datasource.ConnectionHoldContext;
+import chung.concurrency.deadline.RequestDeadline;
+import chung.concurrency.point.domain.Point;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Single-writer 전략: 포인트 id를 해시해 고정된 파티션 스레드로 라우팅한다.
+ * 각 파티션은 자신에게 배정된 포인트를 독점하므로 락이 필요 없고,
+ * 큐에 쌓인 충전 요청을 포인트별로 합산해 한 번의 DB 커밋으로 반영한다(배치 커밋).
+ * 요청은 호출 스레드의 {@link RequestDeadline}을 함께 싣고 가며, 큐에서 꺼냈을 때 기한이 지난 요청은 배치에 넣지 않는다.
+ * 호출자는 기한까지만 결과를 기다리고, 그때까지 워커가 claim하지 않은 요청은 직접 실패시킨다. 워커가 이미 커밋 중이면
+ * 배치에서 가장 늦은 기한으로 줄어든 트랜잭션 타임아웃 안에 결과가 나므로 그 결과를 기다린다.
+ * 요청을 커밋하거나 실패시키려면 먼저 claim해야 하므로, 종료와 경합한 생산자와 워커가 같은 요청을 두 번 끝내지 않는다.
+ * 처리 지연({@link ProcessingDelay})은 스레드별로 꺼지므로, 배치의 요청이 모두 지연을 끈 스레드(부팅 예열)에서 왔을 때만 워커도 끈다.
+ */
+@Service
+public class PointPartitionedExecutor {
+
+    private static final int DEFAULT_PARTITION_COUNT = 4;
+    private static final int DEFAULT_QUEUE_CAPACITY = 1_024;
+    private static final int MAX_BATCH_SIZE = 256;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5_000L;
+
+    private final PointService pointService;
+    private final Partition[] partitions;
+    private final AtomicLong committedBatches = new AtomicLong();
+    private volatile boolean running = true;
+
+    public PointPartitionedExecutor(PointService pointService) {
+        this.pointService = pointService;
+        this.partitions = new Partition[DEFAULT_PARTITION_COUNT];
+        for (int i = 0; i < partitions.length; i++) {
+            partitions[i] = new Partition(i, DEFAULT_QUEUE_CAPACITY);
+        }
+    }
+
+    public Point charge(Long pointId, long amount) {
+        RequestDeadline.checkNotExpired("partition submit");
+        RequestDeadline deadline = RequestDeadline.current();
+        ChargeRequest request = new ChargeRequest(pointId, amount, deadline, ProcessingDelay.isSuspended());
+        partitionOf(pointId).submit(request);
+        if (deadline != null) {
+            awaitWithin(request, deadline);
+        }
+        try {
+            return request.result().join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * 기한까지 결과를 기다린다. 기한이 지나거나 인터럽트되면 아직 claim되지 않은 요청을 실패시키고,
+     * 워커가 이미 claim했다면 커밋 결과를 그대로 따르도록 돌아간다.
+     */
+    private void awaitWithin(ChargeRequest request, RequestDeadline deadline) {
+        try {
+            request.result().get(deadline.remainingNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            request.fail(deadline.exceeded("partition wait"));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            request.fail(new PointConcurrencyBusyException(request.pointId()));
+        } catch (ExecutionException e) {
+            // 실패 결과는 호출자가 join으로 다시 꺼낸다.
+        }
+    }
+
+    /**
+     * 지금까지 커밋된 배치 수. 충전 건수보다 작을수록 배치 효과가 크다.
+     */
+    public long committedBatchCount() {
+        return committedBatches.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        for (Partition partition : partitions) {
+            LockSupport.unpark(partition.worker);
+        }
+        for (Partition partition : partitions) {
+            try {
+                partition.worker.join(SHUTDOWN_TIMEOUT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private Partition partitionOf(Long pointId) {
+        int hash = Long.hashCode(pointId * 0x9E3779B97F4A7C15L);
+        return partitions[Math.floorMod(hash, partitions.length)];
+    }
+
+    private void commit(List<ChargeRequest> batch) {
+        batch.removeIf(request -> !request.claimForCommit());
+        if (batch.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> amountsByPointId = new LinkedHashMap<>();
+        for (ChargeRequest request : batch) {
+            amountsByPointId.merge(request.pointId(), request.amount(), Long::sum);
+        }
+        try {
+            Map<Long, Point> charged = chargeAll(batch, null, amountsByPointId);
+            committedBatches.incrementAndGet();
+            batch.forEach(request -> request.result().complete(charged.get(request.pointId())));
+        } catch (RuntimeException ex) {
+            if (amountsByPointId.size() == 1) {
+                batch.forEach(request -> request.result().completeExceptionally(ex));
+                return;
+            }
+            // 한 포인트의 실패가 같은 배치의 다른 포인트까지 롤백시키지 않도록 포인트별로 다시 커밋한다.
+            commitEachPoint(batch, amountsByPointId);
+        }
+    }
+
+    private void commitEachPoint(List<ChargeRequest> batch, Map<Long, Long> amountsByPointId) {
+        for (Map.Entry<Long, Long> entry : amountsByPointId.entrySet()) {
+            Long pointId = entry.getKey();
+            try {
+                Point charged = chargeAll(batch, pointId, Map.of(pointId, entry.getValue())).get(pointId);
+                committedBatches.incrementAndGet();
+                completeFor(batch, pointId, charged, null);
+            } catch (RuntimeException ex) {
+                completeFor(batch, pointId, null, ex);
+            }
+        }
+    }
+
+    /**
+     * @param pointId null이면 배치 전체, 아니면 그 포인트의 요청만 본다
+     */
+    private Map<Long, Point> chargeAll(List<ChargeRequest> batch, Long pointId, Map<Long, Long> amountsByPointId) {
+        RequestDeadline deadline = latestDeadline(batch, pointId);
+        if (!allDelaySuspended(batch, pointId)) {
+            return chargeAllWithin(deadline, amountsByPointId);
+        }
+        try (ProcessingDelay.Suspension ignored = ProcessingDelay.suspend()) {
+            return chargeAllWithin(deadline, amountsByPointId);
+        }
+    }
+
+    /**
+     * 배치 커밋은 담긴 요청 중 가장 늦은 기한 안에서 한다. 기한 없는 요청이 하나라도 있으면 기한 없이 커밋한다.
+     */
+    private Map<Long, Point> chargeAllWithin(RequestDeadline deadline, Map<Long, Long> amountsByPointId) {
+        return RequestDeadline.callWith(deadline,
+            () -> ConnectionHoldContext.callAs("partitioned", () -> pointService.chargeAll(amountsByPointId)));
+    }
+
+    /**
+     * @param pointId null이면 배치 전체, 아니면 그 포인트의 요청만 본다
+     */
+    private static RequestDeadline latestDeadline(List<ChargeRequest> batch, Long pointId) {
+        RequestDeadline latest = null;
+        for (ChargeRequest request : batch) {
+            if (pointId != null && !pointId.equals(request.pointId())) {
+                continue;
+            }
+            if (request.deadline() == null) {
+                return null;
+            }
+            if (latest == null || request.deadline().remainingNanos() > latest.remainingNanos()) {
+                latest = request.deadline();
+            }
+        }
+        return latest;
+    }
+
+    /**
+     * @param pointId null이면 배치 전체, 아니면 그 포인트의 요청만 본다
+     */
+    private static boolean allDelaySuspended(List<ChargeRequest> batch, Long pointId) {
+        for (ChargeRequest request : batch) {
+            if (pointId != null && !pointId.equals(request.pointId())) {
+                continue;
+            }
+            if (!request.delaySuspended()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void completeFor(List<ChargeRequest> batch, Long pointId, Point charged, RuntimeException failure) {
+        for (ChargeRequest request : batch) {
+            if (!request.pointId().equals(pointId)) {
+                continue;
+            }
+            if (failure != null) {
+                request.result().completeExceptionally(failure);
+            } else {
+                request.result().complete(charged);
+            }
+        }
+    }
+
+    private final class Partition implements Runnable {
+
+        private final MpscRingBuffer<ChargeRequest> queue;
+        private final Thread worker;
+
+        private Partition(int index, int queueCapacity) {
+            this.queue = new MpscRingBuffer<>(queueCapacity);
+            this.worker = new Thread(this, "point-partition-" + index);
+            this.worker.setDaemon(true);
+            this.worker.start();
+        }
+
+        private void submit(ChargeRequest request) {
+            if (!running) {
+                throw shutDown();
+            }
+            while (!queue.offer(request)) {
+                if (!running) {
+                    throw shutDown();
+                }
+                // 큐가 가득 찬 경우 생산자를 잠시 멈춰 소비자가 따라잡을 시간을 준다(backpressure).
+                LockSupport.unpark(worker);
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+            LockSupport.unpark(worker);
+            if (!running) {
+                // 워커가 마지막으로 큐를 비운 뒤에 들어갔을 수 있다. 워커가 아직 claim하지 않았다면 여기서 실패시킨다.
+                request.fail(shutDown());
+            }
+        }
+
+        @Override
+        public void run() {
+            List<ChargeRequest> batch = new ArrayList<>(MAX_BATCH_SIZE);
+            while (running || !queue.isEmpty()) {
+                if (queue.drainTo(batch, MAX_BATCH_SIZE) == 0) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                    continue;
+                }
+                commit(batch);
+                batch.clear();
+            }
+            while (queue.drainTo(batch, MAX_BATCH_SIZE) > 0) {
+                batch.forEach(request -> request.fail(shutDown()));
+                batch.clear();
+            }
+        }
+    }
+
+    private static IllegalStateException shutDown() {
+        return new IllegalStateException("partitioned executor is shut down");
+    }
+
+    private static final class ChargeRequest {
+
+        private final Long pointId;
+        private final long amount;
+        private final RequestDeadline deadline;
+        private final boolean delaySuspended;
+        private final CompletableFuture<Point> result = new CompletableFuture<>();
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private ChargeRequest(Long pointId, long amount, RequestDeadline deadline, boolean delaySuspended) {
+            this.pointId = pointId;
+            this.amount = amount;
+            this.deadline = deadline;
+            this.delaySuspended = delaySuspended;
+        }
+
+        Long pointId() {
+            return pointId;
+        }
+
+        long amount() {
+            return amount;
+        }
+
+        RequestDeadline deadline() {
+            return deadline;
+        }
+
+        boolean delaySuspended() {
+            return delaySuspended;
+        }
+
+        CompletableFuture<Point> result() {
+            return result;
+        }
+
+        /**
+         * 워커가 배치에 넣기 전에 부른다. 이미 다른 쪽이 끝냈거나, 큐에서 기다리는 사이 호출자의 기한이 지났다면 false다.
+         */
+        boolean claimForCommit() {
+            if (result.isDone() || !claimed.compareAndSet(false, true)) {
+                return false;
+            }
+            if (deadline != null && deadline.isExpired()) {
+                result.completeExceptionally(deadline.exceeded("partition queue"));
+                return false;
+            }
+            return true;
+        }
+
+        /**
+         * 아직 아무도 claim하지 않았을 때만 실패로 끝낸다. 워커가 이미 커밋 중이면 그 결과를 따른다.
+         */
+        boolean fail(RuntimeException failure) {
+            if (!claimed.compareAndSet(false, true)) {
+                return false;
+            }
+            result.completeExceptionally(failure);
+            return true;
+        }
+    }
+}
@@ -1,33 +1,110 @@
 package chung.concurrency.point.application;
 
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import chung.concurrency.datasource.ConnectionHoldContext;
+import chung.concurrency.deadline.RequestDeadline;
 import chung.concurrency.point.domain.Point;
 import chung.concurrency.point.domain.PointExceptionSupplier;
 import chung.concurrency.point.domain.PointRepository;
+import chung.concurrency.schedule.SchedulePoint;
 
+/**
+ * 비관적 락 전략. 트랜잭션이 행 락을 기다리는 동안에도 커넥션을 점유하므로,
+ * pool-aware admission 모드에서는 동시에 트랜잭션에 들어가는 호출 수를 커넥션 풀보다 작게 제한해
+ * 초과 호출이 getConnection 타임아웃 대신 JVM 안의 세마포어 큐에서 대기하게 한다.
+ * 허용 수를 따로 정하지 않으면 풀 크기에서 다른 전략/변경 피드 릴레이 몫으로 {@value #RESERVED_CONNECTIONS}개를 뺀다.
+ * 세마포어 대기도 요청 기한을 넘기지 않고, 행 락 대기는 기한으로 줄어든 트랜잭션 타임아웃(query timeout)이 끊는다.
+ */
 @Service
 public class PointPessimisticService {
+	private static final String STRATEGY = "pessimistic";
+	static final int RESERVED_CONNECTIONS = 2;
+
 	private final PointRepository pointRepository;
+	private final PointChangeOutbox pointChangeOutbox;
+	private final TransactionTemplate transactionTemplate;
+	private final Semaphore admission;
+	private final Duration admissionTimeout;
+
+	@Autowired
+	public PointPessimisticService(PointRepository pointRepository, PointChangeOutbox pointChangeOutbox,
+		TransactionTemplate transactionTemplate,
+		@Value("${point.pessimistic.pool-aware-admission:true}") boolean poolAwareAdmission,
+		@Value("${spring.datasource.hikari.maximum-pool-size:10}") int maximumPoolSize,
+		@Value("${point.pessimistic.admission-permits:0}") int admissionPermits,
+		@Value("${point.pessimistic.admission-timeout:30s}") Duration admissionTimeout) {
+		this(pointRepository, pointChangeOutbox, transactionTemplate,
+			poolAwareAdmission ? admissionPermits(admissionPermits, maximumPoolSize) : 0, admissionTimeout);
+	}
 
-	public PointPessimisticService(PointRepository pointRepository) {
+	PointPessimisticService(PointRepository pointRepository, PointChangeOutbox pointChangeOutbox,
+		TransactionTemplate transactionTemplate, int admissionPermits, Duration admissionTimeout) {
 		this.pointRepository = pointRepository;
+		this.pointChangeOutbox = pointChangeOutbox;
+		this.transactionTemplate = transactionTemplate;
+		this.admission = admissionPermits > 0 ? new Semaphore(admissionPermits, true) : null;
+		this.admissionTimeout = admissionTimeout;
+	}
+
+	static int admissionPermits(int configuredPermits, int maximumPoolSize) {
+		if (configuredPermits > 0) {
+			return configuredPermits;
+		}
+		return Math.max(1, maximumPoolSize - RESERVED_CONNECTIONS);
 	}
 
-	@Transactional
 	public Point charge(Long pointId, long amount) {
+		return ConnectionHoldContext.callAs(STRATEGY, () -> {
+			if (admission == null) {
+				return transactionTemplate.execute(status -> doCharge(pointId, amount));
+			}
+			acquireAdmission(pointId);
+			try {
+				return transactionTemplate.execute(status -> doCharge(pointId, amount));
+			} finally {
+				admission.release();
+			}
+		});
+	}
+
+	private Point doCharge(Long pointId, long amount) {
 		Point point = pointRepository.findByIdForUpdate(pointId)
 			.orElseThrow(PointExceptionSupplier.notFound(pointId));
 
 		long currentBalance = point.getBalance();
+		SchedulePoint.CHARGE_AFTER_READ.reach();
 
-		try {
-			Thread.sleep(200);
-		} catch (InterruptedException ignored) {
-		}
+		ProcessingDelay.simulate();
+		RequestDeadline.checkNotExpired("charge");
 
 		point.setBalance(currentBalance + amount);
-		return pointRepository.save(point);
+		Point charged = pointRepository.saveAndFlush(point);
+		pointChangeOutbox.append(charged, amount);
+		return charged;
+	}
+
+	private void acquireAdmission(Long pointId) {
+		RequestDeadline.checkNotExpired("pessimistic admission");
+		long admissionDeadlineNanos = System.nanoTime() + admissionTimeout.toNanos();
+		long waitNanos = RequestDeadline.boundNanoTime(admissionDeadlineNanos) - System.nanoTime();
+		try {
+			if (!admission.tryAcquire(waitNanos, TimeUnit.NANOSECONDS)) {
+				if (RequestDeadline.limits(admissionDeadlineNanos)) {
+					throw RequestDeadline.current().exceeded("pessimistic admission");
+				}
+				throw new PointConcurrencyBusyException(pointId);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new PointConcurrencyBusyException(pointId);
+		}
 	}
 }
@@ -0,0 +1,50 @@
+package chung.concurrency.point.application;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import chung.concurrency.point.domain.Point;
+import chung.concurrency.point.domain.PointExceptionSupplier;
+import chung.concurrency.point.domain.PointRepository;
+
+/**
+ * 잔액 조회 전용 서비스. readOnly 트랜잭션이므로 레플리카가 설정되어 있으면 레플리카에서 읽는다.
+ * 충전 결과로 받은 version을 넘기면 read-your-writes를 보장한다. 레플리카가 그 version까지 따라오지 못했으면 primary에서 다시 읽는다.
+ */
+@Service
+public class PointQueryService {
+
+    private final PointRepository pointRepository;
+    private final TransactionTemplate replicaRead;
+    private final TransactionTemplate primaryRead;
+
+    public PointQueryService(PointRepository pointRepository, PlatformTransactionManager transactionManager) {
+        this.pointRepository = pointRepository;
+        this.replicaRead = new TransactionTemplate(transactionManager);
+        this.replicaRead.setReadOnly(true);
+        this.primaryRead = new TransactionTemplate(transactionManager);
+    }
+
+    @Transactional(readOnly = true)
+    public Point getPoint(Long pointId) {
+        return find(pointId);
+    }
+
+    /**
+     * @param minVersion 충전이 반환한 {@link Point#getVersion()}. 이 version 이상을 읽을 때까지 레플리카를 믿지 않는다.
+     */
+    public Point getPoint(Long pointId, long minVersion) {
+        Point point = replicaRead.execute(status -> pointRepository.findById(pointId).orElse(null));
+        if (point != null && point.getVersion() >= minVersion) {
+            return point;
+        }
+        return primaryRead.execute(status -> find(pointId));
+    }
+
+    private Point find(Long pointId) {
+        return pointRepository.findById(pointId)
+            .orElseThrow(PointExceptionSupplier.notFound(pointId));
+    }
+}
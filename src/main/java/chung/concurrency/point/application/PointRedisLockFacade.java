@@ -1,13 +1,17 @@
 package chung.concurrency.point.application;
 
+import java.time.Duration;
+
 import org.springframework.stereotype.Service;
 
+import chung.concurrency.datasource.ConnectionHoldContext;
 import chung.concurrency.lock.RedisLockExecutor;
 import chung.concurrency.point.domain.Point;
 
 /**
  * FakeRedisLock 기반 분산 락 파사드.
  * 트랜잭션은 PointService가 담당하고, 분산 락은 Facade에서 선행 취득한다.
+ * 락 획득 시 받은 fencing token을 쓰기에 실어 lease 만료 후의 늦은 쓰기를 DB가 거절하게 한다.
  */
 @Service
 public class PointRedisLockFacade {
@@ -21,11 +25,16 @@ public class PointRedisLockFacade {
     }
 
     public Point charge(Long pointId, long amount) {
-        String lockKey = buildLockKey(pointId);
-        return redisLockExecutor.executeWithLock(lockKey, () -> pointService.charge(pointId, amount));
+        return redisLockExecutor.executeWithFencedLock(pointId, fencingToken -> chargeFenced(pointId, amount, fencingToken));
+    }
+
+    public Point charge(Long pointId, long amount, Duration leaseDuration, Duration waitTimeout) {
+        return redisLockExecutor.executeWithFencedLock(pointId,
+            fencingToken -> chargeFenced(pointId, amount, fencingToken), leaseDuration, waitTimeout);
     }
 
-    private String buildLockKey(Long pointId) {
-        return "point:" + pointId;
+    private Point chargeFenced(Long pointId, long amount, long fencingToken) {
+        return ConnectionHoldContext.callAs(
+            "redis-lock", () -> pointService.chargeWithFencingToken(pointId, amount, fencingToken));
     }
 }
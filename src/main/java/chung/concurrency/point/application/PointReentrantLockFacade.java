@@ -3,6 +3,7 @@ package chung.concurrency.point.application;
 import java.util.concurrent.locks.ReentrantLock;
 import org.springframework.stereotype.Service;
 
+import chung.concurrency.datasource.ConnectionHoldContext;
 import chung.concurrency.point.domain.Point;
 
 /**
@@ -22,7 +23,7 @@ public class PointReentrantLockFacade {
     public Point charge(Long pointId, long amount) {
         lock.lock();
         try {
-            return pointService.charge(pointId, amount);
+            return ConnectionHoldContext.callAs("reentrant-lock", () -> pointService.charge(pointId, amount));
         } finally {
             lock.unlock();
         }
@@ -1,18 +1,26 @@
 package chung.concurrency.point.application;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import chung.concurrency.deadline.RequestDeadline;
 import chung.concurrency.point.domain.Point;
+import chung.concurrency.point.domain.PointExceptionSupplier;
 import chung.concurrency.point.domain.PointRepository;
+import chung.concurrency.schedule.SchedulePoint;
 
 @Service
 public class PointService {
 
     private final PointRepository pointRepository;
+    private final PointChangeOutbox pointChangeOutbox;
 
-    public PointService(PointRepository pointRepository) {
+    public PointService(PointRepository pointRepository, PointChangeOutbox pointChangeOutbox) {
         this.pointRepository = pointRepository;
+        this.pointChangeOutbox = pointChangeOutbox;
     }
 
     @Transactional
@@ -20,13 +28,62 @@ public class PointService {
         Point point = pointRepository.findById(pointId).orElseThrow();
 
         long currentBalance = point.getBalance();
+        SchedulePoint.CHARGE_AFTER_READ.reach();
 
-        try {
-            Thread.sleep(200);
-        } catch (InterruptedException ignored) {
-        }
+        ProcessingDelay.simulate();
+        // 기다리는 사람이 없는 쓰기는 하지 않고 롤백한다.
+        RequestDeadline.checkNotExpired("charge");
 
         point.setBalance(currentBalance + amount);
-        return pointRepository.save(point);
+        Point charged = pointRepository.saveAndFlush(point);
+        pointChangeOutbox.append(charged, amount);
+        return charged;
+    }
+
+    /**
+     * 분산 락의 fencing token을 함께 기록하는 충전. lease 만료 후 깨어난 이전 소유자처럼
+     * 더 작은 토큰을 가진 쓰기나, 읽은 뒤 다른 쓰기가 끼어든 경우는 하나의 조건부 UPDATE에서 거절된다.
+     */
+    @Transactional
+    public Point chargeWithFencingToken(Long pointId, long amount, long fencingToken) {
+        Point point = pointRepository.findById(pointId)
+            .orElseThrow(PointExceptionSupplier.notFound(pointId));
+
+        long currentBalance = point.getBalance();
+        SchedulePoint.CHARGE_AFTER_READ.reach();
+
+        ProcessingDelay.simulate();
+        RequestDeadline.checkNotExpired("charge");
+
+        int updated = pointRepository.updateBalanceFenced(pointId, currentBalance + amount,
+            point.getVersion(), fencingToken);
+        if (updated == 0) {
+            throw new PointFencingTokenRejectedException(pointId, fencingToken);
+        }
+        Point charged = pointRepository.findById(pointId).orElseThrow(PointExceptionSupplier.notFound(pointId));
+        pointChangeOutbox.append(charged, amount);
+        return charged;
+    }
+
+    /**
+     * 포인트별로 합산된 충전액을 하나의 트랜잭션으로 반영한다.
+     * 호출자가 해당 포인트들의 단일 writer임을 보장해야 한다(PointPartitionedExecutor).
+     */
+    @Transactional
+    public Map<Long, Point> chargeAll(Map<Long, Long> amountsByPointId) {
+        Map<Long, Point> points = new LinkedHashMap<>();
+        amountsByPointId.forEach((pointId, amount) -> points.put(pointId,
+            pointRepository.findById(pointId).orElseThrow(PointExceptionSupplier.notFound(pointId))));
+
+        // charge()와 같은 처리 지연을 커밋(배치) 단위로 한 번만 둔다.
+        ProcessingDelay.simulate();
+        // 워커 스레드에는 배치에서 가장 늦은 요청 기한이 걸려 있다.
+        RequestDeadline.checkNotExpired("batch commit");
+
+        points.forEach((pointId, point) -> point.setBalance(point.getBalance() + amountsByPointId.get(pointId)));
+        pointRepository.saveAll(points.values());
+        pointRepository.flush();
+        points.forEach((pointId, point) -> pointChangeOutbox.append(point, amountsByPointId.get(pointId)));
+        return points;
     }
 }
@@ -2,6 +2,7 @@ package chung.concurrency.point.application;
 
 import org.springframework.stereotype.Service;
 
+import chung.concurrency.datasource.ConnectionHoldContext;
 import chung.concurrency.point.domain.Point;
 
 /**
@@ -19,6 +20,6 @@ public class PointSynchronizedFacade {
     }
 
     public synchronized Point charge(Long pointId, long amount) {
-        return pointService.charge(pointId, amount);
+        return ConnectionHoldContext.callAs("synchronized", () -> pointService.charge(pointId, amount));
     }
 }
@@ -0,0 +1,49 @@
+package chung.concurrency.point.application;
+
+/**
+ * 충전 트랜잭션 안에서 읽기와 쓰기 사이의 처리 지연(200ms)을 흉내 낸다. 경합 구간을 넓혀 전략별 차이를 드러내기 위한 것이다.
+ * 부팅 예열은 suspend()로 예열 스레드에서만 지연을 끈 채 충전 경로를 반복한다. 예열 중에도 Tomcat은 이미 요청을 받으므로
+ * 그 사이 들어온 실제 요청은 그대로 지연을 거친다.
+ */
+public final class ProcessingDelay {
+
+    private static final long DELAY_MILLIS = 200L;
+    private static final ThreadLocal<Boolean> SUSPENDED = new ThreadLocal<>();
+
+    private ProcessingDelay() {
+    }
+
+    public static void simulate() {
+        if (isSuspended()) {
+            return;
+        }
+        try {
+            Thread.sleep(DELAY_MILLIS);
+        } catch (InterruptedException ignored) {
+        }
+    }
+
+    /**
+     * close할 때까지 호출 스레드에서만 지연을 건너뛴다. 다른 스레드로 넘기는 작업(파티션 worker의 배치 커밋)은
+     * 요청과 함께 {@link #isSuspended()}를 넘겨 받아 그 스레드에서 다시 suspend해야 한다.
+     */
+    public static Suspension suspend() {
+        if (isSuspended()) {
+            return () -> {
+            };
+        }
+        SUSPENDED.set(Boolean.TRUE);
+        return SUSPENDED::remove;
+    }
+
+    static boolean isSuspended() {
+        return SUSPENDED.get() != null;
+    }
+
+    @FunctionalInterface
+    public interface Suspension extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,136 @@
+package chung.concurrency.point.application;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * 낙관적 락 재시도 예산(token bucket). 성공 1건마다 retryRatio만큼 재시도 토큰을 적립하고, 재시도 1회마다 1개를 쓴다.
+ * 전역 버킷과 포인트별 버킷을 모두 통과해야 재시도할 수 있으므로, 핫스팟에서 재시도가 성공 트래픽의 일정 비율을 넘지 못한다.
+ * 성공이 없는 구간에도 완전히 막히지 않도록 초당 최소 재시도량만큼은 시간에 따라 채운다.
+ * 추적하는 포인트가 한도를 넘으면 가득 찬 버킷(새로 만든 것과 같다)과 오래 쓰이지 않은 버킷만 버리므로,
+ * 예산을 소진한 핫스팟이 다른 포인트 때문에 가득 찬 예산으로 되돌아가지 않는다.
+ */
+@Component
+public class RetryBudget implements PointOptimisticService.RetryListener {
+
+    private static final double DEFAULT_RETRY_RATIO = 0.2;
+    private static final double DEFAULT_MIN_RETRIES_PER_SECOND = 10.0;
+    private static final double DEFAULT_GLOBAL_CAPACITY = 500.0;
+    private static final double DEFAULT_PER_POINT_CAPACITY = 50.0;
+    private static final int MAX_TRACKED_POINTS = 10_000;
+    private static final long IDLE_EVICTION_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final double retryRatio;
+    private final double minRetriesPerSecond;
+    private final double perPointCapacity;
+    private final int maxTrackedPoints;
+    private final LongSupplier nanoClock;
+    private final TokenBucket global;
+    private final Map<Long, TokenBucket> perPoint = new ConcurrentHashMap<>();
+
+    public RetryBudget() {
+        this(DEFAULT_RETRY_RATIO, DEFAULT_MIN_RETRIES_PER_SECOND, DEFAULT_GLOBAL_CAPACITY, DEFAULT_PER_POINT_CAPACITY,
+            System::nanoTime);
+    }
+
+    RetryBudget(double retryRatio, double minRetriesPerSecond, double globalCapacity, double perPointCapacity,
+        LongSupplier nanoClock) {
+        this(retryRatio, minRetriesPerSecond, globalCapacity, perPointCapacity, MAX_TRACKED_POINTS, nanoClock);
+    }
+
+    RetryBudget(double retryRatio, double minRetriesPerSecond, double globalCapacity, double perPointCapacity,
+        int maxTrackedPoints, LongSupplier nanoClock) {
+        this.retryRatio = retryRatio;
+        this.minRetriesPerSecond = minRetriesPerSecond;
+        this.perPointCapacity = perPointCapacity;
+        this.maxTrackedPoints = maxTrackedPoints;
+        this.nanoClock = nanoClock;
+        this.global = new TokenBucket(globalCapacity);
+    }
+
+    /**
+     * 재시도 토큰을 하나 꺼낸다. 전역 또는 포인트별 예산이 바닥났다면 false.
+     */
+    public boolean tryAcquireRetry(Long pointId) {
+        TokenBucket point = bucketOf(pointId);
+        if (!point.tryWithdraw()) {
+            return false;
+        }
+        if (!global.tryWithdraw()) {
+            point.deposit(1.0);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 포인트별 예산을 가득 찬 상태로 되돌린다.
+     */
+    public void reset(Long pointId) {
+        perPoint.remove(pointId);
+    }
+
+    @Override
+    public void onAttempt(int attempt, int maxRetry) {
+    }
+
+    @Override
+    public void onSuccess(Long pointId, int attempt) {
+        global.deposit(retryRatio);
+        bucketOf(pointId).deposit(retryRatio);
+    }
+
+    private TokenBucket bucketOf(Long pointId) {
+        if (perPoint.size() >= maxTrackedPoints && !perPoint.containsKey(pointId)) {
+            long now = nanoClock.getAsLong();
+            perPoint.values().removeIf(bucket -> bucket.isEvictable(now));
+        }
+        return perPoint.computeIfAbsent(pointId, id -> new TokenBucket(perPointCapacity));
+    }
+
+    private final class TokenBucket {
+
+        private final double capacity;
+        private double tokens;
+        private long refilledAt;
+        private long usedAt;
+
+        private TokenBucket(double capacity) {
+            this.capacity = capacity;
+            this.tokens = capacity;
+            this.refilledAt = nanoClock.getAsLong();
+            this.usedAt = refilledAt;
+        }
+
+        synchronized boolean tryWithdraw() {
+            refill();
+            usedAt = refilledAt;
+            if (tokens < 1.0) {
+                return false;
+            }
+            tokens -= 1.0;
+            return true;
+        }
+
+        synchronized void deposit(double amount) {
+            refill();
+            tokens = Math.min(capacity, tokens + amount);
+        }
+
+        synchronized boolean isEvictable(long now) {
+            refill();
+            return tokens >= capacity || now - usedAt >= IDLE_EVICTION_NANOS;
+        }
+
+        private void refill() {
+            long now = nanoClock.getAsLong();
+            double elapsedSeconds = (double) (now - refilledAt) / TimeUnit.SECONDS.toNanos(1);
+            refilledAt = now;
+            tokens = Math.min(capacity, tokens + elapsedSeconds * minRetriesPerSecond);
+        }
+    }
+}
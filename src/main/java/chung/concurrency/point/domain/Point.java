@@ -20,6 +20,9 @@ public class Point {
     @Version
     private long version;
 
+    @Column(name = "fence_token", nullable = false)
+    private long fenceToken;
+
     protected Point() {
     }
 
@@ -39,4 +42,12 @@ public class Point {
     public void setBalance(long balance) {
         this.balance = balance;
     }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getFenceToken() {
+        return fenceToken;
+    }
 }
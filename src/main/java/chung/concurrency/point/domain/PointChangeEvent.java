@@ -0,0 +1,75 @@
+package chung.concurrency.point.domain;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * 커밋된 충전 한 건을 기록하는 transactional outbox 행.
+ * 포인트 행을 갱신한 같은 트랜잭션 안에서, 행 락을 쥔 뒤에 INSERT되므로 같은 포인트의 이벤트 id는 커밋 순서와 같다.
+ */
+@Entity
+@Table(name = "point_change_events",
+    indexes = @Index(name = "idx_point_change_events_created_at", columnList = "created_at"))
+public class PointChangeEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "point_id", nullable = false)
+    private Long pointId;
+
+    @Column(nullable = false)
+    private long amount;
+
+    @Column(nullable = false)
+    private long balance;
+
+    @Column(nullable = false)
+    private long version;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    protected PointChangeEvent() {
+    }
+
+    public PointChangeEvent(Long pointId, long amount, long balance, long version) {
+        this.pointId = pointId;
+        this.amount = amount;
+        this.balance = balance;
+        this.version = version;
+        this.createdAt = Instant.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getPointId() {
+        return pointId;
+    }
+
+    public long getAmount() {
+        return amount;
+    }
+
+    public long getBalance() {
+        return balance;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
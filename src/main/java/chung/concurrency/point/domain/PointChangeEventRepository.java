@@ -0,0 +1,48 @@
+package chung.concurrency.point.domain;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface PointChangeEventRepository extends JpaRepository<PointChangeEvent, Long> {
+
+	List<PointChangeEvent> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+	List<PointChangeEvent> findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(Long afterId, Long upToId,
+		Pageable pageable);
+
+	@Query(
+		"""
+		select max(e.id)
+		from PointChangeEvent e
+		"""
+	)
+	Optional<Long> findMaxId();
+
+	@Transactional
+	@Modifying
+	@Query(
+		"""
+		delete from PointChangeEvent e
+		where e.createdAt < :before
+		"""
+	)
+	int deleteCreatedBefore(@Param("before") Instant before);
+
+	@Transactional
+	@Modifying
+	@Query(
+		"""
+		delete from PointChangeEvent e
+		where e.pointId = :pointId
+		"""
+	)
+	int deleteByPointId(@Param("pointId") Long pointId);
+}
@@ -4,6 +4,7 @@ import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -19,4 +20,53 @@ public interface PointRepository extends JpaRepository<Point, Long> {
 		"""
 	)
 	Optional<Point> findByIdForUpdate(@Param("pointId") Long id);
+
+	/**
+	 * 읽은 뒤 다른 쓰기가 없었고(version), 이 쓰기의 fencing token이 마지막으로 반영된 토큰 이상일 때만 반영한다.
+	 * @return 반영된 행 수(0이면 거절)
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query(
+		"""
+		update Point p
+		set p.balance = :balance, p.fenceToken = :fenceToken, p.version = p.version + 1
+		where p.id = :pointId and p.version = :version and p.fenceToken <= :fenceToken
+		"""
+	)
+	int updateBalanceFenced(@Param("pointId") Long id, @Param("balance") long balance,
+		@Param("version") long version, @Param("fenceToken") long fenceToken);
+
+	/**
+	 * 지금까지 반영된 가장 큰 fencing token. 포인트가 없으면 0.
+	 */
+	@Query(
+		"""
+		select coalesce(max(p.fenceToken), 0)
+		from Point p
+		"""
+	)
+	long findMaxFenceToken();
+
+	@Query(
+		"""
+		select p.version
+		from Point p
+		where p.id = :pointId
+		"""
+	)
+	Optional<Long> findVersionById(@Param("pointId") Long id);
+
+	/**
+	 * 읽은 version이 그대로일 때만 잔액에 delta를 더한다. 충전은 교환 법칙이 성립하므로 최신 version에 다시 적용하면 된다.
+	 * @return 반영된 행 수(0이면 그 사이 다른 쓰기가 있었음)
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query(
+		"""
+		update Point p
+		set p.balance = p.balance + :amount, p.version = p.version + 1
+		where p.id = :pointId and p.version = :version
+		"""
+	)
+	int addBalanceIfVersion(@Param("pointId") Long id, @Param("amount") long amount, @Param("version") long version);
 }
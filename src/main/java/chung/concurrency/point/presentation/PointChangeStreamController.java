@@ -0,0 +1,67 @@
+package chung.concurrency.point.presentation;
+
+import java.time.Instant;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import chung.concurrency.point.application.PointChangeRelay;
+import chung.concurrency.point.domain.PointChangeEvent;
+
+/**
+ * 포인트 잔액 변경을 Server-Sent Events로 흘려보낸다. 이벤트 id는 outbox id이므로,
+ * 재접속 시 브라우저/클라이언트가 보내는 Last-Event-ID(또는 after 파라미터) 다음부터 이어 받는다.
+ * 둘 다 없으면 구독 시점 이후의 변경만 받는다.
+ * 늦게 커밋되어 더 큰 id 뒤에 오는 이벤트는 SSE id 없이 보내, 재접속 위치가 뒤로 돌아가지 않게 한다.
+ * 느려서 relay 버퍼가 넘친 연결은 정상 종료되며, 클라이언트는 Last-Event-ID로 다시 붙으면 된다.
+ */
+@RestController
+@RequestMapping("/points")
+public class PointChangeStreamController {
+
+    private static final long DEFAULT_STREAM_TIMEOUT_MILLIS = 30 * 60 * 1_000L;
+    private static final String EVENT_NAME = "point-changed";
+
+    private final PointChangeRelay pointChangeRelay;
+
+    public PointChangeStreamController(PointChangeRelay pointChangeRelay) {
+        this.pointChangeRelay = pointChangeRelay;
+    }
+
+    @GetMapping(path = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId,
+        @RequestParam(name = "after", required = false) Long after) {
+        long resumeAfter = lastEventId != null ? lastEventId : after != null ? after : pointChangeRelay.watermark();
+        SseEmitter emitter = new SseEmitter(DEFAULT_STREAM_TIMEOUT_MILLIS);
+        long[] lastSentId = {resumeAfter};
+        PointChangeRelay.Subscription subscription = pointChangeRelay.subscribe(resumeAfter, events -> {
+            for (PointChangeEvent event : events) {
+                SseEmitter.SseEventBuilder message = SseEmitter.event()
+                    .name(EVENT_NAME)
+                    .data(PointChangeMessage.from(event), MediaType.APPLICATION_JSON);
+                if (event.getId() > lastSentId[0]) {
+                    message.id(Long.toString(event.getId()));
+                    lastSentId[0] = event.getId();
+                }
+                emitter.send(message);
+            }
+        }, emitter::complete);
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(error -> subscription.cancel());
+        return emitter;
+    }
+
+    record PointChangeMessage(long id, Long pointId, long amount, long balance, long version, Instant createdAt) {
+
+        static PointChangeMessage from(PointChangeEvent event) {
+            return new PointChangeMessage(event.getId(), event.getPointId(), event.getAmount(), event.getBalance(),
+                event.getVersion(), event.getCreatedAt());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package chung.concurrency.point.presentation;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import chung.concurrency.deadline.DeadlineExceededException;
+import chung.concurrency.deadline.RequestDeadline;
+import chung.concurrency.point.application.PointChargeStrategies;
+import chung.concurrency.point.application.PointConcurrencyBusyException;
+import chung.concurrency.point.application.PointFencingTokenRejectedException;
+import chung.concurrency.point.domain.Point;
+import chung.concurrency.point.domain.PointNotFoundException;
+
+/**
+ * 전략을 골라 포인트를 충전하는 HTTP 진입점. 여러 인스턴스를 로드 밸런서 뒤에 두고 전략별 정합성을 비교할 때 쓴다.
+ * synchronized/reentrant/partitioned는 JVM 안에서만 직렬화하므로 인스턴스가 둘 이상이면 서로의 쓰기와 겹쳐
+ * {@code @Version} 충돌(409)로 실패한다.
+ * {@code X-Request-Timeout} 헤더나 {@code timeoutMs} 파라미터로 기한을 주면 그 안에 끝내지 못한 충전은 504로 끝난다.
+ */
+@RestController
+@RequestMapping("/points")
+public class PointChargeController {
+
+    private static final String DEFAULT_STRATEGY = "optimistic";
+
+    private final PointChargeStrategies pointChargeStrategies;
+
+    public PointChargeController(PointChargeStrategies pointChargeStrategies) {
+        this.pointChargeStrategies = pointChargeStrategies;
+    }
+
+    @PostMapping("/{pointId}/charge")
+    public PointResponse charge(@PathVariable Long pointId, @RequestParam long amount,
+        @RequestParam(defaultValue = DEFAULT_STRATEGY) String strategy) {
+        PointChargeStrategies.Charge charge = pointChargeStrategies.get(strategy);
+        if (amount <= 0) {
+            throw new IllegalArgumentException("amount must be positive: " + amount);
+        }
+        RequestDeadline.checkNotExpired("charge request");
+        return PointResponse.from(charge.charge(pointId, amount));
+    }
+
+    @ExceptionHandler(PointNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ErrorResponse notFound(PointNotFoundException ex) {
+        return new ErrorResponse(ex.getMessage());
+    }
+
+    @ExceptionHandler(PointConcurrencyBusyException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse busy(PointConcurrencyBusyException ex) {
+        return new ErrorResponse(ex.getMessage());
+    }
+
+    @ExceptionHandler(PointFencingTokenRejectedException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse fencingRejected(PointFencingTokenRejectedException ex) {
+        return new ErrorResponse(ex.getMessage());
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse versionConflict(OptimisticLockingFailureException ex) {
+        return new ErrorResponse(ex.getMessage());
+    }
+
+    @ExceptionHandler({DeadlineExceededException.class, TransactionTimedOutException.class,
+        QueryTimeoutException.class})
+    @ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+    public ErrorResponse deadlineExceeded(RuntimeException ex) {
+        return new ErrorResponse(ex.getMessage());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse badRequest(IllegalArgumentException ex) {
+        return new ErrorResponse(ex.getMessage());
+    }
+
+    record PointResponse(Long id, long balance, long version) {
+
+        static PointResponse from(Point point) {
+            return new PointResponse(point.getId(), point.getBalance(), point.getVersion());
+        }
+    }
+
+    record ErrorResponse(String message) {
+    }
+}
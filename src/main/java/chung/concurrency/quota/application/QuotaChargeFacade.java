@@ -0,0 +1,42 @@
+package chung.concurrency.quota.application;
+
+import org.springframework.stereotype.Service;
+
+import chung.concurrency.point.application.PointOptimisticService;
+import chung.concurrency.point.domain.Point;
+
+/**
+ * 테넌트 → 캠페인 순으로 일일 한도를 통과한 충전만 포인트에 반영한다.
+ * 한도 검사는 노드 로컬 chunk에서 끝나므로 충전마다 한도 행을 잠그지 않는다.
+ * 충전은 테넌트 한도 행과 별개로 포인트 행만 건드리는 Optimistic 전략을 쓴다.
+ */
+@Service
+public class QuotaChargeFacade {
+
+    private final QuotaManager quotaManager;
+    private final PointOptimisticService pointOptimisticService;
+
+    public QuotaChargeFacade(QuotaManager quotaManager, PointOptimisticService pointOptimisticService) {
+        this.quotaManager = quotaManager;
+        this.pointOptimisticService = pointOptimisticService;
+    }
+
+    public Point charge(String tenantId, String campaignId, Long pointId, long amount) {
+        QuotaScope tenant = QuotaScope.tenant(tenantId);
+        QuotaScope campaign = QuotaScope.campaign(campaignId);
+        if (!quotaManager.tryAcquire(tenant, amount)) {
+            throw new QuotaExceededException(tenant, amount);
+        }
+        if (!quotaManager.tryAcquire(campaign, amount)) {
+            quotaManager.refund(tenant, amount);
+            throw new QuotaExceededException(campaign, amount);
+        }
+        try {
+            return pointOptimisticService.charge(pointId, amount);
+        } catch (RuntimeException ex) {
+            quotaManager.refund(campaign, amount);
+            quotaManager.refund(tenant, amount);
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package chung.concurrency.quota.application;
+
+public class QuotaExceededException extends RuntimeException {
+
+    public QuotaExceededException(QuotaScope scope, long amount) {
+        super("일일 충전 한도를 초과했습니다. scope=" + scope.key() + ", amount=" + amount);
+    }
+}
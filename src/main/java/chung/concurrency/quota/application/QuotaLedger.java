@@ -0,0 +1,63 @@
+package chung.concurrency.quota.application;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import chung.concurrency.quota.domain.QuotaCounter;
+import chung.concurrency.quota.domain.QuotaCounterRepository;
+
+/**
+ * DB에 있는 한도 행에서 chunk를 예약/반납한다. 모든 변경은 조건부 UPDATE 한 번이라 행 락을 잡고 기다리지 않는다.
+ */
+@Component
+public class QuotaLedger {
+
+    /** 한도 행이 없는 scope. 제한 없이 통과시킨다. */
+    public static final long UNLIMITED = -1L;
+
+    private final QuotaCounterRepository quotaCounterRepository;
+
+    public QuotaLedger(QuotaCounterRepository quotaCounterRepository) {
+        this.quotaCounterRepository = quotaCounterRepository;
+    }
+
+    /**
+     * preferredAmount만큼 예약하고, 남은 한도가 그보다 작으면 minimumAmount 이상일 때 남은 만큼만 예약한다.
+     *
+     * @return 예약한 양, 한도가 부족하면 0, 한도 행이 없으면 {@link #UNLIMITED}
+     */
+    @Transactional
+    public long reserve(String scopeKey, LocalDate day, long preferredAmount, long minimumAmount) {
+        if (!quotaCounterRepository.existsById(scopeKey)) {
+            return UNLIMITED;
+        }
+        quotaCounterRepository.rollWindow(scopeKey, day);
+        if (quotaCounterRepository.reserve(scopeKey, day, preferredAmount) == 1) {
+            return preferredAmount;
+        }
+        long remaining = quotaCounterRepository.findById(scopeKey).map(QuotaCounter::remaining).orElse(0L);
+        if (remaining >= minimumAmount && quotaCounterRepository.reserve(scopeKey, day, remaining) == 1) {
+            return remaining;
+        }
+        // 그 사이 다른 노드가 가져갔다면 꼭 필요한 만큼만 한 번 더 시도한다.
+        return quotaCounterRepository.reserve(scopeKey, day, minimumAmount) == 1 ? minimumAmount : 0L;
+    }
+
+    @Transactional
+    public void release(String scopeKey, LocalDate day, long amount) {
+        quotaCounterRepository.release(scopeKey, day, amount);
+    }
+
+    @Transactional
+    public void defineDailyLimit(String scopeKey, long dailyLimit, LocalDate today) {
+        Optional<QuotaCounter> existing = quotaCounterRepository.findById(scopeKey);
+        if (existing.isPresent()) {
+            existing.get().setDailyLimit(dailyLimit);
+            return;
+        }
+        quotaCounterRepository.save(new QuotaCounter(scopeKey, dailyLimit, today));
+    }
+}
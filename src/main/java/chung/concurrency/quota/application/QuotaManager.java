@@ -0,0 +1,242 @@
+package chung.concurrency.quota.application;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 노드 로컬 한도 캐시. DB 한도 행에서 chunk를 lease와 함께 예약해 두고, 충전마다 그 안에서만 차감하므로
+ * 핫 패스의 한도 검사에는 DB 왕복이 없다. chunk가 바닥나거나 lease/날짜가 끝났을 때만 DB에 간다.
+ * lease가 끝난 chunk의 남은 양은 DB에 돌려줘 다른 노드가 쓸 수 있게 한다.
+ * DB가 한도 부족으로 거절한 양 이상의 요청은 lease가 끝나거나(날짜가 바뀌어도 끝난다) 한도가 바뀌거나 환불이 들어올 때까지
+ * DB에도, scope 락에도 가지 않고 바로 거절한다.
+ * 노드가 죽으면 그 노드가 쥔 chunk는 그날 한도에서 빠진 채로 남으므로, 한도가 보수적으로 적용될 뿐 초과되지는 않는다.
+ */
+@Service
+public class QuotaManager {
+
+    private static final Logger log = LoggerFactory.getLogger(QuotaManager.class);
+    private static final int MAX_CACHED_SCOPES = 10_000;
+    private static final long SWEEP_INTERVAL_MILLIS = 1_000L;
+
+    private final QuotaLedger quotaLedger;
+    private final long chunkSize;
+    private final long leaseMillis;
+    private final Clock clock;
+    private final Map<String, LocalQuota> quotas = new ConcurrentHashMap<>();
+    private final AtomicLong reservedChunks = new AtomicLong();
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "quota-lease-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public QuotaManager(QuotaLedger quotaLedger,
+        @Value("${quota.chunk-size:10000}") long chunkSize,
+        @Value("${quota.lease:30s}") Duration lease) {
+        this(quotaLedger, chunkSize, lease, Clock.systemDefaultZone());
+    }
+
+    QuotaManager(QuotaLedger quotaLedger, long chunkSize, Duration lease, Clock clock) {
+        this.quotaLedger = quotaLedger;
+        this.chunkSize = chunkSize;
+        this.leaseMillis = lease.toMillis();
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    public void start() {
+        sweeper.scheduleWithFixedDelay(this::releaseExpiredSafely,
+            SWEEP_INTERVAL_MILLIS, SWEEP_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        sweeper.shutdownNow();
+        quotas.values().forEach(this::releaseUnused);
+    }
+
+    /**
+     * scope 한도에서 amount를 차감한다. 로컬 chunk로 충분하면 DB에 가지 않는다.
+     *
+     * @return 한도 안이면 true
+     */
+    public boolean tryAcquire(QuotaScope scope, long amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("amount must be positive: " + amount);
+        }
+        String scopeKey = scope.key();
+        while (true) {
+            LocalQuota quota = quotas.get(scopeKey);
+            if (quota == null) {
+                quota = cache(scopeKey);
+            }
+            if (clock.millis() < quota.usableUntilMillis) {
+                if (quota.unlimited || quota.counter.tryConsume(amount)) {
+                    return true;
+                }
+                if (amount >= quota.rejectedFromAmount) {
+                    return false;
+                }
+            }
+            Boolean acquired = refillAndAcquire(quota, amount);
+            if (acquired != null) {
+                return acquired;
+            }
+        }
+    }
+
+    /**
+     * 충전이 실패해 쓰지 않은 한도를 로컬 chunk에 되돌린다.
+     */
+    public void refund(QuotaScope scope, long amount) {
+        LocalQuota quota = quotas.get(scope.key());
+        if (quota != null && !quota.unlimited) {
+            quota.counter.add(amount);
+            quota.rejectedFromAmount = Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * 일일 한도를 등록하거나 바꾼다. 이 노드가 쥔 chunk는 반납하고 다음 요청부터 새 한도로 예약한다.
+     */
+    public void defineDailyLimit(QuotaScope scope, long dailyLimit) {
+        quotaLedger.defineDailyLimit(scope.key(), dailyLimit, LocalDate.now(clock));
+        LocalQuota quota = quotas.get(scope.key());
+        if (quota != null) {
+            retire(quota);
+        }
+    }
+
+    /**
+     * 지금까지 DB에서 chunk를 예약한 횟수. 충전 건수보다 훨씬 작아야 한다.
+     */
+    public long reservedChunkCount() {
+        return reservedChunks.get();
+    }
+
+    private LocalQuota cache(String scopeKey) {
+        if (quotas.size() >= MAX_CACHED_SCOPES) {
+            releaseExpired();
+        }
+        return quotas.computeIfAbsent(scopeKey, LocalQuota::new);
+    }
+
+    /**
+     * @return 차감 결과, 그 사이 sweeper가 캐시에서 뺀 항목이면 null(다시 조회해야 함)
+     */
+    private Boolean refillAndAcquire(LocalQuota quota, long amount) {
+        synchronized (quota) {
+            if (quota.retired) {
+                return null;
+            }
+            long now = clock.millis();
+            if (now < quota.usableUntilMillis) {
+                // 다른 스레드가 방금 채웠거나, 잔량이 여러 칸에 흩어져 있을 수 있다.
+                if (quota.unlimited || quota.counter.tryConsumeGathered(amount)) {
+                    return true;
+                }
+                if (amount >= quota.rejectedFromAmount) {
+                    // 앞서 기다리던 스레드가 이미 DB에서 거절당했다.
+                    return false;
+                }
+            } else {
+                releaseUnused(quota);
+                quota.rejectedFromAmount = Long.MAX_VALUE;
+            }
+            LocalDate today = LocalDate.now(clock);
+            long granted = quotaLedger.reserve(quota.scopeKey, today, Math.max(chunkSize, amount), amount);
+            reservedChunks.incrementAndGet();
+            quota.day = today;
+            quota.unlimited = granted == QuotaLedger.UNLIMITED;
+            quota.usableUntilMillis = Math.min(now + leaseMillis, startOfNextDayMillis(today));
+            if (quota.unlimited) {
+                return true;
+            }
+            if (granted < amount) {
+                quota.rejectedFromAmount = Math.min(quota.rejectedFromAmount, amount);
+                return false;
+            }
+            quota.rejectedFromAmount = Long.MAX_VALUE;
+            quota.counter.add(granted - amount);
+            return true;
+        }
+    }
+
+    private void releaseExpiredSafely() {
+        try {
+            releaseExpired();
+        } catch (RuntimeException e) {
+            log.warn("failed to release expired quota leases", e);
+        }
+    }
+
+    void releaseExpired() {
+        long now = clock.millis();
+        for (LocalQuota quota : quotas.values()) {
+            if (now >= quota.usableUntilMillis) {
+                synchronized (quota) {
+                    if (now >= quota.usableUntilMillis) {
+                        retire(quota);
+                    }
+                }
+            }
+        }
+    }
+
+    private void retire(LocalQuota quota) {
+        synchronized (quota) {
+            quota.retired = true;
+            releaseUnused(quota);
+            quotas.remove(quota.scopeKey, quota);
+        }
+    }
+
+    private void releaseUnused(LocalQuota quota) {
+        synchronized (quota) {
+            long unused = quota.counter.drain();
+            // 날짜가 바뀐 뒤에는 전날 예약분을 돌려줄 필요가 없다(행이 새 날짜로 초기화된다).
+            if (unused > 0 && quota.day != null && quota.day.equals(LocalDate.now(clock))) {
+                quotaLedger.release(quota.scopeKey, quota.day, unused);
+            }
+            quota.usableUntilMillis = 0L;
+        }
+    }
+
+    private long startOfNextDayMillis(LocalDate today) {
+        return ZonedDateTime.of(today.plusDays(1).atStartOfDay(), clock.getZone()).toInstant().toEpochMilli();
+    }
+
+    private static final class LocalQuota {
+
+        private final String scopeKey;
+        private final StripedQuotaCounter counter = new StripedQuotaCounter(StripedQuotaCounter.defaultStripes());
+        private volatile long usableUntilMillis;
+        private volatile boolean unlimited;
+        /** 이번 lease 동안 DB가 거절한 가장 작은 요청량. 이 이상은 DB에 묻지 않고 거절한다. */
+        private volatile long rejectedFromAmount = Long.MAX_VALUE;
+        private LocalDate day;
+        private boolean retired;
+
+        private LocalQuota(String scopeKey) {
+            this.scopeKey = scopeKey;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package chung.concurrency.quota.application;
+
+/**
+ * 한도를 거는 단위. 충전 한 건은 테넌트와 캠페인 한도를 모두 통과해야 한다.
+ */
+public record QuotaScope(String type, String id) {
+
+    private static final String TENANT = "tenant";
+    private static final String CAMPAIGN = "campaign";
+
+    public QuotaScope {
+        if (id == null || id.isBlank()) {
+            throw new IllegalArgumentException(type + " id must not be blank");
+        }
+    }
+
+    public static QuotaScope tenant(String tenantId) {
+        return new QuotaScope(TENANT, tenantId);
+    }
+
+    public static QuotaScope campaign(String campaignId) {
+        return new QuotaScope(CAMPAIGN, campaignId);
+    }
+
+    public String key() {
+        return type + ":" + id;
+    }
+}
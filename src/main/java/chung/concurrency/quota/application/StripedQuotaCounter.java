@@ -0,0 +1,101 @@
+package chung.concurrency.quota.application;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 노드가 예약해 둔 한도를 여러 칸(stripe)에 나눠 담는 카운터.
+ * LongAdder처럼 스레드마다 다른 칸을 CAS하므로 같은 테넌트에 충전이 몰려도 한 캐시 라인을 두고 다투지 않는다.
+ * LongAdder와 달리 0 아래로 내려가면 안 되므로, 칸 하나로 모자라면 잔량을 한 칸에 모아 와서 판단한다.
+ */
+final class StripedQuotaCounter {
+
+    // 칸 사이를 128바이트 띄워 인접 칸끼리 false sharing이 없게 한다.
+    private static final int PADDING = 16;
+
+    private final AtomicLongArray cells;
+    private final int mask;
+
+    StripedQuotaCounter(int stripes) {
+        if (Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("stripes must be a power of two: " + stripes);
+        }
+        this.cells = new AtomicLongArray(stripes * PADDING);
+        this.mask = stripes - 1;
+    }
+
+    static int defaultStripes() {
+        return Integer.highestOneBit(Math.min(16, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+    }
+
+    /**
+     * amount만큼 차감한다. 자기 칸부터 시작해 한 칸이 통째로 amount를 감당할 수 있을 때만 차감한다.
+     * 잔량이 여러 칸에 흩어져 있어 실패했다면 호출자가 직렬화한 뒤 {@link #tryConsumeGathered}로 다시 시도한다.
+     */
+    boolean tryConsume(long amount) {
+        int home = homeStripe();
+        for (int i = 0; i <= mask; i++) {
+            if (tryTake((home + i) & mask, amount)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 모든 칸의 잔량을 자기 칸으로 모은 뒤 차감한다. 동시에 두 스레드가 모으면 서로의 잔량을 못 볼 수 있으므로
+     * 호출자가 락으로 직렬화해야 한다. 모으는 동안 {@link #tryConsume}이 실패한 스레드는 그 락에서 기다리게 된다.
+     */
+    boolean tryConsumeGathered(long amount) {
+        long gathered = drain();
+        if (gathered >= amount) {
+            add(gathered - amount);
+            return true;
+        }
+        add(gathered);
+        return false;
+    }
+
+    void add(long amount) {
+        cells.getAndAdd(offset(homeStripe()), amount);
+    }
+
+    /**
+     * 남은 양을 모두 비우고 그 합을 반환한다.
+     */
+    long drain() {
+        long drained = 0L;
+        for (int stripe = 0; stripe <= mask; stripe++) {
+            drained += cells.getAndSet(offset(stripe), 0L);
+        }
+        return drained;
+    }
+
+    long sum() {
+        long sum = 0L;
+        for (int stripe = 0; stripe <= mask; stripe++) {
+            sum += cells.get(offset(stripe));
+        }
+        return sum;
+    }
+
+    private boolean tryTake(int stripe, long amount) {
+        int offset = offset(stripe);
+        long current = cells.get(offset);
+        while (current >= amount) {
+            if (cells.compareAndSet(offset, current, current - amount)) {
+                return true;
+            }
+            current = cells.get(offset);
+        }
+        return false;
+    }
+
+    private int homeStripe() {
+        long h = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & mask;
+    }
+
+    private static int offset(int stripe) {
+        return stripe * PADDING;
+    }
+}
@@ -0,0 +1,62 @@
+package chung.concurrency.quota.domain;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * 테넌트/캠페인 단위 일일 한도. reservedAmount는 실제 충전액이 아니라 노드들이 chunk로 가져간 양의 합이다.
+ */
+@Entity
+@Table(name = "quota_counters")
+public class QuotaCounter {
+
+    @Id
+    @Column(name = "scope_key", length = 128)
+    private String scopeKey;
+
+    @Column(name = "daily_limit", nullable = false)
+    private long dailyLimit;
+
+    @Column(name = "window_day", nullable = false)
+    private LocalDate windowDay;
+
+    @Column(name = "reserved_amount", nullable = false)
+    private long reservedAmount;
+
+    protected QuotaCounter() {
+    }
+
+    public QuotaCounter(String scopeKey, long dailyLimit, LocalDate windowDay) {
+        this.scopeKey = scopeKey;
+        this.dailyLimit = dailyLimit;
+        this.windowDay = windowDay;
+    }
+
+    public String getScopeKey() {
+        return scopeKey;
+    }
+
+    public long getDailyLimit() {
+        return dailyLimit;
+    }
+
+    public void setDailyLimit(long dailyLimit) {
+        this.dailyLimit = dailyLimit;
+    }
+
+    public LocalDate getWindowDay() {
+        return windowDay;
+    }
+
+    public long getReservedAmount() {
+        return reservedAmount;
+    }
+
+    public long remaining() {
+        return Math.max(0L, dailyLimit - reservedAmount);
+    }
+}
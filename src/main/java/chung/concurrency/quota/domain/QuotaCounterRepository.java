@@ -0,0 +1,50 @@
+package chung.concurrency.quota.domain;
+
+import java.time.LocalDate;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface QuotaCounterRepository extends JpaRepository<QuotaCounter, String> {
+	/**
+	 * 날짜가 바뀌었으면 예약량을 0으로 되돌린다. 여러 노드가 동시에 호출해도 한 번만 반영된다.
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query(
+		"""
+		update QuotaCounter q
+		set q.windowDay = :day, q.reservedAmount = 0
+		where q.scopeKey = :scopeKey and q.windowDay < :day
+		"""
+	)
+	int rollWindow(@Param("scopeKey") String scopeKey, @Param("day") LocalDate day);
+
+	/**
+	 * 한도를 넘지 않을 때만 amount만큼 예약한다.
+	 * @return 반영된 행 수(0이면 남은 한도 부족)
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query(
+		"""
+		update QuotaCounter q
+		set q.reservedAmount = q.reservedAmount + :amount
+		where q.scopeKey = :scopeKey and q.windowDay = :day and q.reservedAmount + :amount <= q.dailyLimit
+		"""
+	)
+	int reserve(@Param("scopeKey") String scopeKey, @Param("day") LocalDate day, @Param("amount") long amount);
+
+	/**
+	 * 쓰지 않은 chunk를 돌려준다. 이미 다음 날로 넘어간 행에는 반영하지 않는다.
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query(
+		"""
+		update QuotaCounter q
+		set q.reservedAmount = q.reservedAmount - :amount
+		where q.scopeKey = :scopeKey and q.windowDay = :day and q.reservedAmount >= :amount
+		"""
+	)
+	int release(@Param("scopeKey") String scopeKey, @Param("day") LocalDate day, @Param("amount") long amount);
+}
@@ -0,0 +1,42 @@
+package chung.concurrency.retry;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 보호 구간 지연의 EWMA(α = 1/8)를 base로 쓰는 decorrelated jitter.
+ * 점유 시간이 짧아지면 빨리 다시 시도하고, 길어지면 헛된 재시도를 줄인다.
+ */
+final class AdaptiveBackoffPolicy implements BackoffPolicy {
+
+    private static final int EWMA_SHIFT = 3;
+
+    private final long minNanos;
+    private final long maxNanos;
+    private final AtomicLong averageLatencyNanos = new AtomicLong();
+
+    AdaptiveBackoffPolicy(long minNanos, long maxNanos) {
+        if (minNanos <= 0 || maxNanos < minNanos) {
+            throw new IllegalArgumentException("invalid backoff range: " + minNanos + ".." + maxNanos);
+        }
+        this.minNanos = minNanos;
+        this.maxNanos = maxNanos;
+    }
+
+    @Override
+    public Backoff newBackoff() {
+        return new DecorrelatedJitterBackoffPolicy.DecorrelatedBackoff(this::baseNanos, maxNanos);
+    }
+
+    @Override
+    public void recordLatency(long latencyNanos) {
+        if (latencyNanos <= 0) {
+            return;
+        }
+        averageLatencyNanos.getAndUpdate(average ->
+            average == 0 ? latencyNanos : average + ((latencyNanos - average) >> EWMA_SHIFT));
+    }
+
+    long baseNanos() {
+        return Math.max(minNanos, Math.min(maxNanos, averageLatencyNanos.get()));
+    }
+}
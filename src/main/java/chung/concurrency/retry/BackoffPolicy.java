@@ -0,0 +1,64 @@
+package chung.concurrency.retry;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 재시도 사이 대기 시간을 정하는 정책. 재시도 흐름 하나마다 {@link #newBackoff()}로 상태를 새로 만든다.
+ * 대기는 호출자가 넘긴 deadline을 넘지 않는다.
+ */
+public interface BackoffPolicy {
+
+    Backoff newBackoff();
+
+    /**
+     * 보호 구간(락 점유, 트랜잭션)이 실제로 걸린 시간. 지연 피드백을 쓰는 정책만 참고한다.
+     */
+    default void recordLatency(long latencyNanos) {
+    }
+
+    /**
+     * initial부터 두 배씩 늘리되 max에서 멈춘다. 지터가 없어 경쟁자들이 같은 박자로 재시도한다.
+     */
+    static BackoffPolicy exponential(Duration initial, Duration max) {
+        return new ExponentialBackoffPolicy(initial.toNanos(), max.toNanos(), false);
+    }
+
+    /**
+     * 지수 상한 안에서 [0, 상한] 균등 분포로 고른다.
+     */
+    static BackoffPolicy fullJitter(Duration initial, Duration max) {
+        return new ExponentialBackoffPolicy(initial.toNanos(), max.toNanos(), true);
+    }
+
+    /**
+     * 직전 대기의 3배까지를 상한으로 [base, 3 × 직전] 균등 분포로 고른다.
+     */
+    static BackoffPolicy decorrelatedJitter(Duration base, Duration max) {
+        return new DecorrelatedJitterBackoffPolicy(base.toNanos(), max.toNanos());
+    }
+
+    /**
+     * 최근 보호 구간 지연의 EWMA를 base로 삼는 decorrelated jitter. 락 점유가 길어지면 대기도 함께 늘어난다.
+     */
+    static BackoffPolicy adaptive(Duration min, Duration max) {
+        return new AdaptiveBackoffPolicy(min.toNanos(), max.toNanos());
+    }
+
+    interface Backoff {
+
+        long nextDelayNanos();
+
+        /**
+         * 다음 대기 시간만큼 잠든다. 깨어날 시점이 deadline 이후라면 잠들지 않고 false를 반환한다.
+         */
+        default boolean sleepBefore(long deadlineNanoTime) throws InterruptedException {
+            long delayNanos = nextDelayNanos();
+            if (deadlineNanoTime - System.nanoTime() - delayNanos <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.sleep(delayNanos);
+            return true;
+        }
+    }
+}
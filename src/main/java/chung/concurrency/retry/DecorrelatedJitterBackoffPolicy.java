@@ -0,0 +1,47 @@
+package chung.concurrency.retry;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+final class DecorrelatedJitterBackoffPolicy implements BackoffPolicy {
+
+    private final long baseNanos;
+    private final long maxNanos;
+
+    DecorrelatedJitterBackoffPolicy(long baseNanos, long maxNanos) {
+        if (baseNanos <= 0 || maxNanos < baseNanos) {
+            throw new IllegalArgumentException("invalid backoff range: " + baseNanos + ".." + maxNanos);
+        }
+        this.baseNanos = baseNanos;
+        this.maxNanos = maxNanos;
+    }
+
+    @Override
+    public Backoff newBackoff() {
+        return new DecorrelatedBackoff(() -> baseNanos, maxNanos);
+    }
+
+    /**
+     * sleep = min(max, random(base, previous × 3)). base는 매번 다시 읽어 적응형 정책과 공유한다.
+     */
+    static final class DecorrelatedBackoff implements Backoff {
+
+        private final LongSupplier base;
+        private final long maxNanos;
+        private long previousNanos;
+
+        DecorrelatedBackoff(LongSupplier base, long maxNanos) {
+            this.base = base;
+            this.maxNanos = maxNanos;
+        }
+
+        @Override
+        public long nextDelayNanos() {
+            long baseNanos = base.getAsLong();
+            long upper = Math.min(maxNanos, Math.max(baseNanos, previousNanos) * 3);
+            long delay = upper > baseNanos ? ThreadLocalRandom.current().nextLong(baseNanos, upper + 1) : baseNanos;
+            previousNanos = delay;
+            return delay;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package chung.concurrency.retry;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+final class ExponentialBackoffPolicy implements BackoffPolicy {
+
+    private final long initialNanos;
+    private final long maxNanos;
+    private final boolean fullJitter;
+
+    ExponentialBackoffPolicy(long initialNanos, long maxNanos, boolean fullJitter) {
+        if (initialNanos <= 0 || maxNanos < initialNanos) {
+            throw new IllegalArgumentException("invalid backoff range: " + initialNanos + ".." + maxNanos);
+        }
+        this.initialNanos = initialNanos;
+        this.maxNanos = maxNanos;
+        this.fullJitter = fullJitter;
+    }
+
+    @Override
+    public Backoff newBackoff() {
+        return new Backoff() {
+            private long ceilingNanos = initialNanos;
+
+            @Override
+            public long nextDelayNanos() {
+                long ceiling = ceilingNanos;
+                ceilingNanos = ceiling > maxNanos / 2 ? maxNanos : ceiling * 2;
+                return fullJitter ? ThreadLocalRandom.current().nextLong(ceiling + 1) : ceiling;
+            }
+        };
+    }
+}
@@ -0,0 +1,42 @@
+package chung.concurrency.schedule;
+
+/**
+ * 락/충전 코드 안의 경합 구간 표시. 평소에는 아무 일도 하지 않고(NOOP hook),
+ * 스트레스 테스트가 hook을 설치하면 이 지점에서 seed에 따라 yield/pause를 끼워 넣어 드문 인터리빙을 재현한다.
+ */
+public enum SchedulePoint {
+    /** 락 획득 시도 직전 */
+    LOCK_BEFORE_ACQUIRE,
+    /** 락을 얻은 직후, 임계 구역 진입 전 */
+    LOCK_ACQUIRED,
+    /** 임계 구역을 마치고 해제하기 직전 */
+    LOCK_BEFORE_RELEASE,
+    /** 만료 lease 강제 회수 직전 */
+    LEASE_BEFORE_RECLAIM,
+    /** 충전 트랜잭션이 잔액을 읽은 뒤, 쓰기 전 */
+    CHARGE_AFTER_READ;
+
+    private static volatile Hook hook = Hook.NOOP;
+
+    public void reach() {
+        hook.onReach(this);
+    }
+
+    /**
+     * hook을 설치하고, close하면 이전 hook으로 되돌린다. 한 번에 하나만 설치하는 테스트 전용 기능이다.
+     */
+    public static AutoCloseable install(Hook newHook) {
+        Hook previous = hook;
+        hook = newHook;
+        return () -> hook = previous;
+    }
+
+    @FunctionalInterface
+    public interface Hook {
+
+        Hook NOOP = point -> {
+        };
+
+        void onReach(SchedulePoint point);
+    }
+}
@@ -0,0 +1,192 @@
+package chung.concurrency.warmup;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import chung.concurrency.lock.RedisLockExecutor;
+import chung.concurrency.point.application.ConflictCircuitBreaker;
+import chung.concurrency.point.application.PointChargeStrategies;
+import chung.concurrency.point.application.PointQueryService;
+import chung.concurrency.point.application.ProcessingDelay;
+import chung.concurrency.point.application.RetryBudget;
+import chung.concurrency.point.domain.Point;
+import chung.concurrency.point.domain.PointChangeEventRepository;
+import chung.concurrency.point.domain.PointNotFoundException;
+import chung.concurrency.point.domain.PointRepository;
+
+/**
+ * 배포 직후 첫 트래픽이 차가운 커넥션 풀/JIT/캐시를 떠안지 않도록 부팅 마지막에 한 번 예열한다.
+ * 1) Hikari 풀을 최대 크기까지 채우고 2) 락 경로를 반복 실행하고 3) 전략별 충전을 (이 스레드에서만) 처리 지연 없이 scratch 포인트로 흘린 뒤
+ * scratch 포인트와 그 outbox 이벤트를 지우고 4) 자주 쓰이는 포인트를 미리 읽는다.
+ * 기본 반복 수는 C1 컴파일 임계값(Tier3InvocationThreshold=200)을 넘기는 정도다. C2(Tier4InvocationThreshold=5000)까지는
+ * 부팅 시간이 너무 늘어나므로 실제 트래픽에 맡긴다.
+ * ApplicationRunner가 모두 끝나야 ApplicationReadyEvent가 발행되므로 readiness 프로브는 예열이 끝난 뒤에야 UP이 된다.
+ * 예열은 최선 노력이라 단계가 실패해도 경고만 남기고 부팅을 계속한다.
+ * warmup.exit-after=true면 예열 후 종료하므로 -XX:ArchiveClassesAtExit와 함께 CDS 학습 실행으로 쓸 수 있다.
+ */
+@Component
+@ConditionalOnProperty(name = "warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmupRunner.class);
+    private static final long WARMUP_AMOUNT = 1L;
+    private static final int CONNECTION_VALID_TIMEOUT_SECONDS = 1;
+
+    private final DataSource dataSource;
+    private final PointRepository pointRepository;
+    private final PointChangeEventRepository pointChangeEventRepository;
+    private final PointQueryService pointQueryService;
+    private final RedisLockExecutor redisLockExecutor;
+    private final ConflictCircuitBreaker conflictCircuitBreaker;
+    private final RetryBudget retryBudget;
+    private final ConfigurableApplicationContext applicationContext;
+    private final PointChargeStrategies pointChargeStrategies;
+    private final int poolSize;
+    private final long scratchPointId;
+    private final int chargeIterations;
+    private final int lockIterations;
+    private final List<Long> hotPointIds;
+    private final boolean exitAfter;
+
+    public WarmupRunner(DataSource dataSource, PointRepository pointRepository,
+        PointChangeEventRepository pointChangeEventRepository, PointQueryService pointQueryService,
+        RedisLockExecutor redisLockExecutor, ConflictCircuitBreaker conflictCircuitBreaker, RetryBudget retryBudget,
+        PointChargeStrategies pointChargeStrategies, ConfigurableApplicationContext applicationContext,
+        @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+        @Value("${warmup.scratch-point-id:0}") long scratchPointId,
+        @Value("${warmup.charge-iterations:300}") int chargeIterations,
+        @Value("${warmup.lock-iterations:2000}") int lockIterations,
+        @Value("${warmup.hot-point-ids:}") List<Long> hotPointIds,
+        @Value("${warmup.exit-after:false}") boolean exitAfter) {
+        this.dataSource = dataSource;
+        this.pointRepository = pointRepository;
+        this.pointChangeEventRepository = pointChangeEventRepository;
+        this.pointQueryService = pointQueryService;
+        this.redisLockExecutor = redisLockExecutor;
+        this.conflictCircuitBreaker = conflictCircuitBreaker;
+        this.retryBudget = retryBudget;
+        this.pointChargeStrategies = pointChargeStrategies;
+        this.applicationContext = applicationContext;
+        this.poolSize = poolSize;
+        this.scratchPointId = scratchPointId != 0L ? scratchPointId : randomScratchPointId();
+        this.chargeIterations = chargeIterations;
+        this.lockIterations = lockIterations;
+        this.hotPointIds = hotPointIds;
+        this.exitAfter = exitAfter;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long startedAt = System.nanoTime();
+        phase("connection pool", this::fillConnectionPool);
+        phase("lock path", this::exerciseLockPath);
+        phase("charge strategies", this::exerciseChargeStrategies);
+        phase("hot points", this::preloadHotPoints);
+        log.info("warm-up finished in {}ms, jvm uptime {}ms",
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt),
+            ManagementFactory.getRuntimeMXBean().getUptime());
+        if (exitAfter) {
+            System.exit(SpringApplication.exit(applicationContext));
+        }
+    }
+
+    private void phase(String name, Runnable body) {
+        long startedAt = System.nanoTime();
+        try {
+            body.run();
+            log.info("warm-up {} done in {}ms", name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        } catch (RuntimeException e) {
+            log.warn("warm-up {} failed, continuing boot", name, e);
+        }
+    }
+
+    /**
+     * 커넥션을 풀 최대 크기만큼 동시에 빌려 실제 연결을 모두 만든다. 지연 프록시 뒤라도 isValid가 물리 연결을 연다.
+     */
+    private void fillConnectionPool() {
+        List<Connection> borrowed = new ArrayList<>(poolSize);
+        try {
+            for (int i = 0; i < poolSize; i++) {
+                Connection connection = dataSource.getConnection();
+                borrowed.add(connection);
+                connection.isValid(CONNECTION_VALID_TIMEOUT_SECONDS);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("failed to pre-fill connection pool", e);
+        } finally {
+            borrowed.forEach(WarmupRunner::closeQuietly);
+        }
+    }
+
+    /**
+     * 락 획득/해제 경로를 반복해 C1 컴파일과 프로파일링을 끝내 둔다. memory 백엔드라면 DB/네트워크 왕복이 없다.
+     */
+    private void exerciseLockPath() {
+        for (int i = 0; i < lockIterations; i++) {
+            redisLockExecutor.executeWithLock(scratchPointId, () -> {
+            });
+        }
+    }
+
+    private void exerciseChargeStrategies() {
+        pointRepository.save(new Point(scratchPointId, 0L));
+        try (ProcessingDelay.Suspension ignored = ProcessingDelay.suspend()) {
+            for (String name : pointChargeStrategies.names()) {
+                PointChargeStrategies.Charge charge = pointChargeStrategies.get(name);
+                phase(name + " charges", () -> {
+                    for (int i = 0; i < chargeIterations; i++) {
+                        charge.charge(scratchPointId, WARMUP_AMOUNT);
+                    }
+                });
+            }
+            pointQueryService.getPoint(scratchPointId);
+        } finally {
+            pointRepository.deleteById(scratchPointId);
+            pointChangeEventRepository.deleteByPointId(scratchPointId);
+            conflictCircuitBreaker.reset(scratchPointId);
+            retryBudget.reset(scratchPointId);
+        }
+    }
+
+    private void preloadHotPoints() {
+        for (Long pointId : hotPointIds) {
+            try {
+                pointQueryService.getPoint(pointId);
+            } catch (PointNotFoundException e) {
+                log.debug("hot point {} does not exist", pointId);
+            }
+        }
+    }
+
+    /**
+     * 여러 인스턴스가 동시에 부팅해도 서로의 scratch 포인트를 지우지 않도록 인스턴스마다 다른 음수 id를 쓴다.
+     */
+    private static long randomScratchPointId() {
+        return -1L - ThreadLocalRandom.current().nextLong(Long.MAX_VALUE - 1);
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.debug("failed to return warm-up connection", e);
+        }
+    }
+}
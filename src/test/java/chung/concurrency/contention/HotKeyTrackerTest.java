@@ -0,0 +1,56 @@
+package chung.concurrency.contention;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HotKeyTrackerTest {
+
+    @Test
+    @DisplayName("많은 냉각 key 사이에서 경합이 몰린 key를 top-K 상위로 찾아낸다")
+    void findsHotKeysAmongNoise() {
+        // given
+        HotKeyTracker tracker = new HotKeyTracker(false, 5);
+
+        // when
+        for (long key = 1_000; key < 21_000; key++) {
+            tracker.record(ContentionKind.OPTIMISTIC_CONFLICT, key, 0L);
+        }
+        for (int i = 0; i < 500; i++) {
+            tracker.record(ContentionKind.LOCK_WAIT, 7L, TimeUnit.MILLISECONDS.toNanos(2));
+            if (i % 2 == 0) {
+                tracker.record(ContentionKind.OPTIMISTIC_CONFLICT, 42L, 0L);
+            }
+        }
+
+        // then
+        List<HotKeyTracker.HotKey> top = tracker.topKeys(2);
+        assertThat(top).extracting(HotKeyTracker.HotKey::key).containsExactly(7L, 42L);
+        assertThat(top.get(0).contentions()).isGreaterThanOrEqualTo(500);
+        assertThat(top.get(0).waitNanos()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(1_000));
+        assertThat(tracker.count(ContentionKind.LOCK_WAIT)).isEqualTo(500);
+        assertThat(tracker.count(ContentionKind.OPTIMISTIC_CONFLICT)).isEqualTo(20_250);
+    }
+
+    @Test
+    @DisplayName("decay가 반복되면 더 이상 경합하지 않는 key는 top-K에서 빠진다")
+    void decayForgetsCooledKeys() {
+        // given
+        HotKeyTracker tracker = new HotKeyTracker(false, 5);
+        for (int i = 0; i < 8; i++) {
+            tracker.record(ContentionKind.LOCK_WAIT, 7L, 0L);
+        }
+
+        // when
+        for (int i = 0; i < 4; i++) {
+            tracker.decay();
+        }
+
+        // then
+        assertThat(tracker.topKeys(5)).isEmpty();
+    }
+}
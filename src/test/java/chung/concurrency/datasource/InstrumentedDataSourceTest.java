@@ -0,0 +1,74 @@
+package chung.concurrency.datasource;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InstrumentedDataSourceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final InstrumentedDataSource dataSource = new InstrumentedDataSource(
+        new DriverManagerDataSource("jdbc:h2:mem:instrumented;DB_CLOSE_DELAY=-1", "sa", ""), meterRegistry);
+
+    @Test
+    @DisplayName("진입 전략이 표시한 태그로 커넥션 획득 대기와 점유 시간을 기록한다")
+    void recordsAcquireAndHoldPerStrategy() {
+        // when
+        ConnectionHoldContext.callAs("pessimistic", this::openAndClose);
+        ConnectionHoldContext.callAs("pessimistic", this::openAndClose);
+        ConnectionHoldContext.callAs("optimistic", this::openAndClose);
+
+        // then
+        assertThat(timer(InstrumentedDataSource.ACQUIRE_METRIC, "pessimistic").count()).isEqualTo(2L);
+        assertThat(timer(InstrumentedDataSource.HOLD_METRIC, "pessimistic").count()).isEqualTo(2L);
+        assertThat(timer(InstrumentedDataSource.ACQUIRE_METRIC, "optimistic").count()).isEqualTo(1L);
+        assertThat(timer(InstrumentedDataSource.HOLD_METRIC, "optimistic").count()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("안쪽 서비스의 표시는 무시되고 바깥 전략 태그로 집계된다")
+    void outerStrategyWins() {
+        // when
+        ConnectionHoldContext.callAs("redis-lock", () -> ConnectionHoldContext.callAs("inner", this::openAndClose));
+
+        // then
+        assertThat(timer(InstrumentedDataSource.HOLD_METRIC, "redis-lock").count()).isEqualTo(1L);
+        assertThat(meterRegistry.find(InstrumentedDataSource.HOLD_METRIC).tag("strategy", "inner").timer()).isNull();
+    }
+
+    @Test
+    @DisplayName("전략 표시가 없으면 untagged로 기록하고, close를 두 번 불러도 점유 시간은 한 번만 기록한다")
+    void recordsUntaggedAndIgnoresSecondClose() throws SQLException {
+        // given
+        Connection connection = dataSource.getConnection();
+
+        // when
+        connection.close();
+        connection.close();
+
+        // then
+        assertThat(timer(InstrumentedDataSource.ACQUIRE_METRIC, ConnectionHoldContext.UNTAGGED).count()).isEqualTo(1L);
+        assertThat(timer(InstrumentedDataSource.HOLD_METRIC, ConnectionHoldContext.UNTAGGED).count()).isEqualTo(1L);
+    }
+
+    private Void openAndClose() {
+        try (Connection ignored = dataSource.getConnection()) {
+            return null;
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Timer timer(String name, String strategy) {
+        Timer timer = meterRegistry.find(name).tag("strategy", strategy).timer();
+        assertThat(timer).isNotNull();
+        return timer;
+    }
+}
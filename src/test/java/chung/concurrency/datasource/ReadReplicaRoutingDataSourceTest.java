@@ -0,0 +1,53 @@
+package chung.concurrency.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadReplicaRoutingDataSourceTest {
+
+    private final DataSource dataSource = new LazyConnectionDataSourceProxy(
+        new ReadReplicaRoutingDataSource(h2("routing_primary"), h2("routing_replica")));
+
+    @AfterEach
+    void clearReadOnlyFlag() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    @DisplayName("readOnly 플래그는 커넥션을 얻은 뒤 켜져도 첫 쿼리 시점에 레플리카로 라우팅된다")
+    void routesReadOnlyTransactionToReplica() throws SQLException {
+        // given
+        try (Connection connection = dataSource.getConnection()) {
+            // when: 트랜잭션 매니저처럼 커넥션을 먼저 얻고 나서 readOnly를 동기화한다
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+            // then
+            assertThat(connection.getMetaData().getURL()).contains("routing_replica");
+        }
+    }
+
+    @Test
+    @DisplayName("readOnly가 아닌 호출은 primary로 간다")
+    void routesWritesToPrimary() throws SQLException {
+        // when
+        try (Connection connection = dataSource.getConnection()) {
+            // then
+            assertThat(connection.getMetaData().getURL()).contains("routing_primary");
+        }
+    }
+
+    private static DataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
@@ -0,0 +1,220 @@
+package chung.concurrency.deadline;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import chung.concurrency.point.domain.Point;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.LockModeType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+/**
+ * 트랜잭션 타임아웃이 요청 기한으로 줄어 JDBC query timeout까지 이어지는지 확인합니다.
+ * H2는 행 락 대기를 query timeout이 아닌 자체 LOCK_TIMEOUT으로만 끊으므로, 행 락 대기 테스트는
+ * {@code -Ddeadline.jdbc-url}(및 username/password)로 MySQL을 지정했을 때만 실행합니다.
+ */
+class DeadlineAwareTransactionManagerTest {
+
+    private static final long POINT_ID = 9_000_001L;
+    private static final List<Integer> queryTimeouts = new CopyOnWriteArrayList<>();
+
+    private static LocalContainerEntityManagerFactoryBean h2EntityManagerFactory;
+    private static DeadlineAwareTransactionManager transactionManager;
+
+    @BeforeAll
+    static void setUp() {
+        DataSource dataSource = recordingQueryTimeouts(
+            new DriverManagerDataSource("jdbc:h2:mem:deadline-tx;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", ""));
+        h2EntityManagerFactory = entityManagerFactory(dataSource, "create-drop");
+        transactionManager = new DeadlineAwareTransactionManager(h2EntityManagerFactory.getObject());
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+            entityManager(h2EntityManagerFactory.getObject()).persist(new Point(POINT_ID, 0L)));
+    }
+
+    @AfterAll
+    static void tearDown() {
+        h2EntityManagerFactory.destroy();
+    }
+
+    @Test
+    @DisplayName("기한이 있으면 트랜잭션 타임아웃을 남은 시간(초 올림 + 1초)으로 줄이고, 더 짧은 설정값은 그대로 둔다")
+    void capsTimeoutByRemainingTime() {
+        // given
+        DefaultTransactionDefinition unbounded = new DefaultTransactionDefinition();
+        DefaultTransactionDefinition oneSecond = new DefaultTransactionDefinition();
+        oneSecond.setTimeout(1);
+        DefaultTransactionDefinition oneMinute = new DefaultTransactionDefinition();
+        oneMinute.setTimeout(60);
+
+        // when
+        int withoutDeadline = transactionManager.determineTimeout(unbounded);
+        int capped = RequestDeadline.callWithin(Duration.ofMillis(1_500),
+            () -> transactionManager.determineTimeout(unbounded));
+        int cappedConfigured = RequestDeadline.callWithin(Duration.ofMillis(1_500),
+            () -> transactionManager.determineTimeout(oneMinute));
+        int shorterConfigured = RequestDeadline.callWithin(Duration.ofMillis(1_500),
+            () -> transactionManager.determineTimeout(oneSecond));
+
+        // then
+        assertThat(withoutDeadline).isEqualTo(TransactionDefinition.TIMEOUT_DEFAULT);
+        assertThat(capped).isEqualTo(2 + DeadlineAwareTransactionManager.STATEMENT_ROUNDING_SECONDS);
+        assertThat(cappedConfigured).isEqualTo(2 + DeadlineAwareTransactionManager.STATEMENT_ROUNDING_SECONDS);
+        assertThat(shorterConfigured).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("기한 안에서 연 트랜잭션의 문장에는 남은 시간을 넘지 않는 query timeout이 걸린다")
+    void appliesQueryTimeoutWithinDeadline() {
+        // given
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        queryTimeouts.clear();
+
+        // when
+        RequestDeadline.callWithin(Duration.ofMillis(1_500), () -> transactionTemplate.execute(status ->
+            entityManager(h2EntityManagerFactory.getObject()).find(Point.class, POINT_ID,
+                LockModeType.PESSIMISTIC_WRITE)));
+
+        // then
+        assertThat(queryTimeouts).isNotEmpty();
+        for (int timeout : queryTimeouts) {
+            assertThat(timeout).isPositive()
+                .isLessThanOrEqualTo(2 + DeadlineAwareTransactionManager.STATEMENT_ROUNDING_SECONDS);
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "deadline.jdbc-url", matches = ".+")
+    @DisplayName("다른 트랜잭션이 쥔 행 락 대기는 DB 락 타임아웃이 아니라 줄어든 트랜잭션 타임아웃에서 끊긴다")
+    void cutsRowLockWaitAtDeadline() throws Exception {
+        // given
+        LocalContainerEntityManagerFactoryBean factory = entityManagerFactory(new DriverManagerDataSource(
+            System.getProperty("deadline.jdbc-url"), System.getProperty("deadline.username", "appuser"),
+            System.getProperty("deadline.password", "apppass")), "update");
+        EntityManagerFactory entityManagerFactory = factory.getObject();
+        EntityManager entityManager = entityManager(entityManagerFactory);
+        TransactionTemplate transactionTemplate =
+            new TransactionTemplate(new DeadlineAwareTransactionManager(entityManagerFactory));
+        transactionTemplate.executeWithoutResult(status -> {
+            if (entityManager.find(Point.class, POINT_ID) == null) {
+                entityManager.persist(new Point(POINT_ID, 0L));
+            }
+        });
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(
+            status -> {
+                entityManager.find(Point.class, POINT_ID, LockModeType.PESSIMISTIC_WRITE);
+                locked.countDown();
+                awaitQuietly(release);
+            }));
+
+        try {
+            assertThat(locked.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // when
+            long startedAt = System.nanoTime();
+            Throwable failure = catchThrowable(() -> RequestDeadline.callWithin(Duration.ofMillis(1_500),
+                () -> transactionTemplate.execute(status ->
+                    entityManager.find(Point.class, POINT_ID, LockModeType.PESSIMISTIC_WRITE))));
+            long elapsedNanos = System.nanoTime() - startedAt;
+
+            // then: MySQL 기본 innodb_lock_wait_timeout(50초)보다 훨씬 일찍, 줄어든 타임아웃 안에서 끊긴다
+            assertThat(failure).isNotNull();
+            assertThat(elapsedNanos).isLessThan(
+                TimeUnit.SECONDS.toNanos(2 + DeadlineAwareTransactionManager.STATEMENT_ROUNDING_SECONDS + 1));
+        } finally {
+            release.countDown();
+            holder.get(10, TimeUnit.SECONDS);
+            transactionTemplate.executeWithoutResult(status ->
+                entityManager.remove(entityManager.find(Point.class, POINT_ID)));
+            factory.destroy();
+        }
+    }
+
+    private static LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource, String ddlAuto) {
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setPackagesToScan(Point.class.getPackageName());
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.setJpaPropertyMap(Map.of("hibernate.hbm2ddl.auto", ddlAuto));
+        factory.afterPropertiesSet();
+        return factory;
+    }
+
+    private static EntityManager entityManager(EntityManagerFactory entityManagerFactory) {
+        return SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+    }
+
+    /**
+     * 준비된 문장에 걸린 query timeout(초)을 기록하는 DataSource를 만듭니다.
+     */
+    private static DataSource recordingQueryTimeouts(DataSource target) {
+        return new DelegatingDataSource(target) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                Connection connection = super.getConnection();
+                return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                        Object result = invoke(connection, method, args);
+                        return result instanceof PreparedStatement statement ? recording(statement) : result;
+                    });
+            }
+        };
+    }
+
+    private static PreparedStatement recording(PreparedStatement statement) {
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+            new Class<?>[] {PreparedStatement.class}, (proxy, method, args) -> {
+                if (method.getName().equals("setQueryTimeout")) {
+                    queryTimeouts.add((Integer) args[0]);
+                }
+                return invoke(statement, method, args);
+            });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package chung.concurrency.deadline;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import jakarta.servlet.FilterChain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestDeadlineFilterTest {
+
+    private final RequestDeadlineFilter filter = new RequestDeadlineFilter();
+    private final AtomicBoolean chained = new AtomicBoolean();
+    private final AtomicReference<RequestDeadline> deadlineInChain = new AtomicReference<>();
+    private final FilterChain chain = (request, response) -> {
+        chained.set(true);
+        deadlineInChain.set(RequestDeadline.current());
+    };
+
+    @Test
+    @DisplayName("헤더도 파라미터도 없으면 기한 없이 다음 필터로 넘긴다")
+    void passesWithoutDeadline() throws Exception {
+        // when
+        filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), chain);
+
+        // then
+        assertThat(chained.get()).isTrue();
+        assertThat(deadlineInChain.get()).isNull();
+    }
+
+    @Test
+    @DisplayName("헤더가 있으면 파라미터보다 헤더를 따르고, 요청이 끝나면 기한을 걷어 낸다")
+    void prefersHeaderOverParameter() throws Exception {
+        // given
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(RequestDeadlineFilter.TIMEOUT_HEADER, "2000");
+        request.setParameter(RequestDeadlineFilter.TIMEOUT_PARAMETER, "60000");
+
+        // when
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // then
+        assertThat(deadlineInChain.get().remainingNanos()).isLessThanOrEqualTo(TimeUnit.SECONDS.toNanos(2));
+        assertThat(RequestDeadline.current()).isNull();
+    }
+
+    @Test
+    @DisplayName("0 이하이거나 숫자가 아닌 기한은 400으로 거절하고 다음 필터로 넘기지 않는다")
+    void rejectsNonPositiveOrMalformedTimeout() throws Exception {
+        for (String timeout : new String[] {"0", "-1", "abc"}) {
+            // given
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            request.setParameter(RequestDeadlineFilter.TIMEOUT_PARAMETER, timeout);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            // when
+            filter.doFilter(request, response, chain);
+
+            // then
+            assertThat(response.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+            assertThat(chained.get()).isFalse();
+        }
+    }
+
+    @Test
+    @DisplayName("상한보다 긴 기한은 상한으로 줄여 나노초 변환이 넘치지 않게 한다")
+    void clampsLargeTimeout() throws Exception {
+        // given
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(RequestDeadlineFilter.TIMEOUT_HEADER, Long.toString(Long.MAX_VALUE));
+
+        // when
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // then
+        assertThat(deadlineInChain.get().remainingNanos())
+            .isPositive()
+            .isLessThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(RequestDeadlineFilter.MAX_TIMEOUT_MILLIS));
+    }
+}
@@ -0,0 +1,73 @@
+package chung.concurrency.deadline;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestDeadlineTest {
+
+    @Test
+    @DisplayName("기한이 없으면 호출자가 정한 대기 한도를 그대로 쓰고 어떤 단계도 막지 않는다")
+    void noDeadlineKeepsCallerBound() {
+        // given
+        long callerDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+
+        // when & then
+        assertThat(RequestDeadline.current()).isNull();
+        assertThat(RequestDeadline.boundNanoTime(callerDeadline)).isEqualTo(callerDeadline);
+        assertThat(RequestDeadline.limits(callerDeadline)).isFalse();
+        RequestDeadline.checkNotExpired("any");
+    }
+
+    @Test
+    @DisplayName("요청 기한이 더 이르면 대기 한도를 기한으로 줄인다")
+    void boundsCallerDeadlineByRequestDeadline() {
+        // given
+        long callerDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+
+        // when
+        long bounded = RequestDeadline.callWithin(Duration.ofMillis(200),
+            () -> RequestDeadline.boundNanoTime(callerDeadline));
+        boolean limits = RequestDeadline.callWithin(Duration.ofMillis(200),
+            () -> RequestDeadline.limits(callerDeadline));
+
+        // then
+        assertThat(callerDeadline - bounded).isGreaterThan(TimeUnit.SECONDS.toNanos(9));
+        assertThat(limits).isTrue();
+        assertThat(RequestDeadline.current()).isNull();
+    }
+
+    @Test
+    @DisplayName("중첩해서 걸어도 더 이른 기한이 유지되고, 안쪽 scope를 벗어나면 바깥 기한으로 돌아온다")
+    void nestedScopeKeepsEarlierDeadline() {
+        // given
+        RequestDeadline outer = RequestDeadline.after(Duration.ofMillis(500));
+        RequestDeadline earlier = RequestDeadline.after(Duration.ofMillis(100));
+
+        // when & then
+        RequestDeadline.callWith(outer, () -> {
+            assertThat(RequestDeadline.callWithin(Duration.ofSeconds(5), RequestDeadline::current)).isSameAs(outer);
+            assertThat(RequestDeadline.callWith(earlier, RequestDeadline::current)).isSameAs(earlier);
+            assertThat(RequestDeadline.current()).isSameAs(outer);
+            return null;
+        });
+        assertThat(RequestDeadline.current()).isNull();
+    }
+
+    @Test
+    @DisplayName("기한이 지난 뒤의 단계는 단계 이름을 담은 DeadlineExceededException으로 건너뛴다")
+    void expiredDeadlineRejectsNextStage() {
+        // when & then
+        assertThatThrownBy(() -> RequestDeadline.callWithin(Duration.ZERO, () -> {
+            RequestDeadline.checkNotExpired("lock wait");
+            return null;
+        }))
+            .isInstanceOf(DeadlineExceededException.class)
+            .hasMessageContaining("stage=lock wait");
+    }
+}
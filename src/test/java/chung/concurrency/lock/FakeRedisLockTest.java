@@ -0,0 +1,126 @@
+package chung.concurrency.lock;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FakeRedisLockTest {
+
+    private static final long LEASE_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    @DisplayName("소유자가 아닌 토큰으로는 락을 해제할 수 없다")
+    void unlockRequiresOwnerToken() {
+        // given
+        FakeRedisLock lock = new FakeRedisLock();
+        long now = System.nanoTime();
+        lock.tryLock(1L, 10L, now + LEASE_NANOS);
+
+        // when & then
+        assertThat(lock.unlock(1L, 11L)).isFalse();
+        assertThat(lock.tryLock(1L, 12L, now + LEASE_NANOS)).isEqualTo(LockBackend.NOT_ACQUIRED);
+        assertThat(lock.unlock(1L, 10L)).isTrue();
+        assertThat(lock.tryLock(1L, 12L, now + LEASE_NANOS)).isNotEqualTo(LockBackend.NOT_ACQUIRED);
+    }
+
+    @Test
+    @DisplayName("같은 key를 다시 획득할 때마다 더 큰 fencing token을 받는다")
+    void fencingTokensIncreasePerKey() {
+        // given
+        FakeRedisLock lock = new FakeRedisLock();
+        long now = System.nanoTime();
+
+        // when
+        long first = lock.tryLock(1L, 10L, now + LEASE_NANOS);
+        lock.tryLock(2L, 20L, now + LEASE_NANOS);
+        lock.reclaimIfExpired(1L, now + LEASE_NANOS);
+        long second = lock.tryLock(1L, 11L, now + LEASE_NANOS * 2);
+
+        // then
+        assertThat(first).isPositive();
+        assertThat(second).isGreaterThan(first);
+    }
+
+    @Test
+    @DisplayName("다시 접근되지 않는 만료 lease도 reaper가 회수한다")
+    void reapsAbandonedLeases() {
+        // given
+        FakeRedisLock lock = new FakeRedisLock();
+        long now = System.nanoTime();
+        for (long key = 0; key < 1_000; key++) {
+            lock.tryLock(key, key + 1, now + LEASE_NANOS);
+        }
+
+        // when
+        lock.reapExpired(now + LEASE_NANOS / 2);
+        int liveBeforeExpiry = lock.size();
+        lock.reapExpired(now + LEASE_NANOS * 2);
+
+        // then
+        assertThat(liveBeforeExpiry).isEqualTo(1_000);
+        assertThat(lock.size()).isZero();
+        assertThat(lock.reapedCount()).isEqualTo(1_000);
+    }
+
+    @Test
+    @DisplayName("이미 해제 후 다른 소유자가 가진 lease는 reaper가 건드리지 않는다")
+    void doesNotReapLeaseOfNewOwner() {
+        // given
+        FakeRedisLock lock = new FakeRedisLock();
+        long now = System.nanoTime();
+        lock.tryLock(1L, 10L, now + LEASE_NANOS);
+        lock.unlock(1L, 10L);
+        lock.tryLock(1L, 11L, now + TimeUnit.MINUTES.toNanos(1));
+
+        // when
+        lock.reapExpired(now + LEASE_NANOS * 2);
+
+        // then
+        assertThat(lock.size()).isEqualTo(1);
+        assertThat(lock.unlock(1L, 11L)).isTrue();
+    }
+
+    @Test
+    @DisplayName("wheel 한 바퀴보다 긴 lease는 만료 전까지 유지된다")
+    void keepsLeasesLongerThanOneRotation() {
+        // given
+        FakeRedisLock lock = new FakeRedisLock();
+        long now = System.nanoTime();
+        long longLease = TimeUnit.SECONDS.toNanos(30);
+        lock.tryLock(1L, 10L, now + longLease);
+
+        // when
+        lock.reapExpired(now + TimeUnit.SECONDS.toNanos(10));
+        int liveBeforeExpiry = lock.size();
+        lock.reapExpired(now + longLease + TimeUnit.SECONDS.toNanos(1));
+
+        // then
+        assertThat(liveBeforeExpiry).isEqualTo(1);
+        assertThat(lock.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("재시작한 락 저장소는 저장된 가장 큰 fencing token 다음 값부터 발급한다")
+    void continuesFencingTokensAfterRestart() {
+        // given
+        FakeRedisLock beforeRestart = new FakeRedisLock();
+        long now = System.nanoTime();
+        long recorded = 0L;
+        for (long owner = 1; owner <= 5; owner++) {
+            recorded = beforeRestart.tryLock(1L, owner, now + LEASE_NANOS);
+            beforeRestart.unlock(1L, owner);
+        }
+        long highestRecorded = recorded;
+
+        // when
+        FakeRedisLock afterRestart = new FakeRedisLock(() -> highestRecorded);
+        long token = afterRestart.tryLock(1L, 10L, now + LEASE_NANOS);
+
+        // then
+        assertThat(token).isGreaterThan(highestRecorded);
+        assertThat(new FakeRedisLock().tryLock(1L, 10L, now + LEASE_NANOS)).isLessThanOrEqualTo(highestRecorded);
+    }
+}
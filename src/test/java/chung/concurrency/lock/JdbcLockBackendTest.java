@@ -0,0 +1,115 @@
+package chung.concurrency.lock;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JdbcLockBackendTest {
+
+    private static final AtomicInteger DATABASE_SEQUENCE = new AtomicInteger();
+    private static final Duration LEASE = Duration.ofMillis(1_000L);
+
+    private final AtomicLong clock = new AtomicLong(1_000_000L);
+    private JdbcTemplate jdbcTemplate;
+    private JdbcLockBackend backend;
+
+    @BeforeEach
+    void setUp() {
+        String url = "jdbc:h2:mem:jdbc_lock_" + DATABASE_SEQUENCE.incrementAndGet() + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+        backend = new JdbcLockBackend(jdbcTemplate, clock::get);
+        backend.createTableIfAbsent();
+    }
+
+    @Test
+    @DisplayName("비어 있는 key는 첫 fencing token 1로 얻고, lease가 살아 있는 동안 다른 소유자는 얻지 못한다")
+    void acquiresFreeKeyAndExcludesOthers() {
+        // when
+        long first = backend.tryAcquire(1L, 10L, LEASE);
+        long second = backend.tryAcquire(1L, 20L, LEASE);
+
+        // then
+        assertThat(first).isEqualTo(1L);
+        assertThat(second).isEqualTo(LockBackend.NOT_ACQUIRED);
+        assertThat(backend.tryAcquire(2L, 20L, LEASE)).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("lease가 만료되면 다른 소유자가 더 큰 token으로 넘겨받고, 이전 소유자의 해제는 무시된다")
+    void takesOverExpiredLease() {
+        // given
+        long stale = backend.tryAcquire(1L, 10L, LEASE);
+
+        // when
+        clock.addAndGet(LEASE.toMillis());
+        long takenOver = backend.tryAcquire(1L, 20L, LEASE);
+
+        // then
+        assertThat(takenOver).isGreaterThan(stale);
+        assertThat(backend.unlock(1L, 10L)).isFalse();
+        assertThat(backend.tryAcquire(1L, 30L, LEASE)).isEqualTo(LockBackend.NOT_ACQUIRED);
+    }
+
+    @Test
+    @DisplayName("소유자 토큰이 일치할 때만 해제되고, 해제된 key는 만료를 기다리지 않고 다시 얻을 수 있다")
+    void unlocksOnlyForOwner() {
+        // given
+        backend.tryAcquire(1L, 10L, LEASE);
+
+        // when & then
+        assertThat(backend.unlock(1L, 20L)).isFalse();
+        assertThat(backend.tryAcquire(1L, 20L, LEASE)).isEqualTo(LockBackend.NOT_ACQUIRED);
+        assertThat(backend.unlock(1L, 10L)).isTrue();
+        assertThat(backend.tryAcquire(1L, 20L, LEASE)).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("해제와 만료 인계를 섞어 반복해도 fencing token은 key별로 단조 증가한다")
+    void fencingTokensIncreaseMonotonically() {
+        // given
+        long previous = 0L;
+
+        // when & then
+        for (int i = 1; i <= 20; i++) {
+            long owner = 100L + i;
+            long token = backend.tryAcquire(1L, owner, LEASE);
+            assertThat(token).isGreaterThan(previous);
+            previous = token;
+            if (i % 2 == 0) {
+                backend.unlock(1L, owner);
+            } else {
+                clock.addAndGet(LEASE.toMillis());
+            }
+        }
+        assertThat(previous).isEqualTo(20L);
+    }
+
+    @Test
+    @DisplayName("이미 기록된 토큰(floor)이 있으면 새 key와 floor보다 작은 토큰을 가진 key 모두 floor보다 큰 토큰을 받는다")
+    void issuesTokensAboveFloor() {
+        // given: floor를 모르던 이전 실행이 key 1에 작은 토큰을 남겼다
+        long before = backend.tryAcquire(1L, 10L, LEASE);
+        backend.unlock(1L, 10L);
+        JdbcLockBackend restarted = new JdbcLockBackend(jdbcTemplate, clock::get, () -> 57L);
+
+        // when
+        long newKey = restarted.tryAcquire(2L, 20L, LEASE);
+        long existingKey = restarted.tryAcquire(1L, 20L, LEASE);
+        restarted.unlock(1L, 20L);
+        long next = restarted.tryAcquire(1L, 30L, LEASE);
+
+        // then
+        assertThat(before).isEqualTo(1L);
+        assertThat(newKey).isEqualTo(58L);
+        assertThat(existingKey).isEqualTo(58L);
+        assertThat(next).isEqualTo(59L);
+    }
+}
@@ -0,0 +1,134 @@
+package chung.concurrency.lock.resp;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import chung.concurrency.lock.LockBackend;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RespLockBackendTest {
+
+    private static final Duration LEASE = Duration.ofSeconds(5);
+
+    private RespLockServer server;
+    private RespLockBackend backend;
+    private RespLockBackend otherInstance;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new RespLockServer(0);
+        server.start();
+        backend = new RespLockBackend("localhost", server.getPort());
+        otherInstance = new RespLockBackend("localhost", server.getPort());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        backend.close();
+        otherInstance.close();
+        server.stop();
+    }
+
+    @Test
+    @DisplayName("다른 연결(인스턴스)이 쥔 락은 획득할 수 없다")
+    void excludesOtherInstances() {
+        // when
+        long first = backend.tryAcquire(1L, 10L, LEASE);
+        long second = otherInstance.tryAcquire(1L, 20L, LEASE);
+
+        // then
+        assertThat(first).isPositive();
+        assertThat(second).isEqualTo(LockBackend.NOT_ACQUIRED);
+    }
+
+    @Test
+    @DisplayName("소유자 토큰이 일치할 때만 해제된다")
+    void unlocksOnlyForOwner() {
+        // given
+        backend.tryAcquire(1L, 10L, LEASE);
+
+        // when & then
+        assertThat(otherInstance.unlock(1L, 20L)).isFalse();
+        assertThat(backend.unlock(1L, 10L)).isTrue();
+        assertThat(otherInstance.tryAcquire(1L, 20L, LEASE)).isPositive();
+    }
+
+    @Test
+    @DisplayName("lease가 만료되면 다른 인스턴스가 락을 가져간다")
+    void expiredLeaseCanBeTakenOver() throws InterruptedException {
+        // given
+        long staleToken = backend.tryAcquire(1L, 10L, Duration.ofMillis(50));
+
+        // when
+        Thread.sleep(100);
+        long newToken = otherInstance.tryAcquire(1L, 20L, LEASE);
+
+        // then
+        assertThat(newToken).isGreaterThan(staleToken);
+        assertThat(backend.unlock(1L, 10L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("서버를 멈추면 연결된 클라이언트 소켓과 연결 스레드도 함께 정리된다")
+    void stopClosesConnectedClients() throws IOException {
+        // given
+        backend.tryAcquire(1L, 10L, LEASE);
+        otherInstance.tryAcquire(2L, 20L, LEASE);
+        assertThat(server.clientCount()).isEqualTo(2);
+
+        // when
+        server.stop();
+
+        // then
+        assertThat(server.clientCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("fencing token은 실제로 점유한 소유자에게만 점유 순서대로 발급된다")
+    void issuesTokensOnlyToOwners() {
+        // given
+        long first = backend.tryAcquire(1L, 10L, LEASE);
+
+        // when
+        long lost = otherInstance.tryAcquire(1L, 20L, LEASE);
+        backend.unlock(1L, 10L);
+        long second = otherInstance.tryAcquire(1L, 20L, LEASE);
+
+        // then
+        assertThat(lost).isEqualTo(LockBackend.NOT_ACQUIRED);
+        assertThat(second).isEqualTo(first + 1);
+    }
+
+    @Test
+    @DisplayName("재시작한 내장 서버는 저장된 가장 큰 fencing token 다음 값부터 발급한다")
+    void continuesFencingTokensAfterServerRestart() throws IOException {
+        // given
+        long recorded = 0L;
+        for (long owner = 1; owner <= 5; owner++) {
+            recorded = backend.tryAcquire(1L, owner, LEASE);
+            backend.unlock(1L, owner);
+        }
+        long highestRecorded = recorded;
+
+        // when
+        RespLockServer restarted = new RespLockServer(0, () -> highestRecorded);
+        restarted.start();
+        RespLockBackend reconnected = new RespLockBackend("localhost", restarted.getPort());
+        long token;
+        try {
+            token = reconnected.tryAcquire(1L, 10L, LEASE);
+        } finally {
+            reconnected.close();
+            restarted.stop();
+        }
+
+        // then
+        assertThat(token).isEqualTo(highestRecorded + 1);
+    }
+}
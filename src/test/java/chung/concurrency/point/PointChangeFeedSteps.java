@@ -0,0 +1,93 @@
+package chung.concurrency.point;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import chung.concurrency.point.application.PointChangeRelay;
+import chung.concurrency.point.application.PointOptimisticService;
+import chung.concurrency.point.application.PointPessimisticService;
+import chung.concurrency.point.application.PointSynchronizedFacade;
+import chung.concurrency.point.domain.Point;
+import chung.concurrency.point.domain.PointChangeEvent;
+import chung.concurrency.point.domain.PointChangeEventRepository;
+import chung.concurrency.point.domain.PointRepository;
+
+/**
+ * 여러 전략의 충전이 같은 outbox에 기록되고, relay가 이를 포인트별 version 순서로 구독자에게 전달하는지 확인한다.
+ */
+public class PointChangeFeedSteps {
+
+    private static final long POINT_ID = 8L;
+    private static final long DELIVERY_TIMEOUT_MILLIS = 5_000L;
+
+    @Autowired
+    private PointRepository pointRepository;
+
+    @Autowired
+    private PointChangeEventRepository pointChangeEventRepository;
+
+    @Autowired
+    private PointChangeRelay pointChangeRelay;
+
+    @Autowired
+    private PointSynchronizedFacade pointSynchronizedFacade;
+
+    @Autowired
+    private PointPessimisticService pointPessimisticService;
+
+    @Autowired
+    private PointOptimisticService pointOptimisticService;
+
+    private long startOffset;
+    private List<PointChangeEvent> received;
+
+    @Given("피드용 계좌가 초기 잔액 {long}원으로 존재한다")
+    public void setupPoint(long balance) {
+        pointRepository.deleteAll();
+        pointRepository.save(new Point(POINT_ID, balance));
+        startOffset = pointChangeEventRepository.findMaxId().orElse(0L);
+    }
+
+    @When("피드용 계좌에 synchronized, 비관적 락, 낙관적 락 전략으로 {long}원씩 충전한다")
+    public void chargeWithEachStrategy(long amount) {
+        pointSynchronizedFacade.charge(POINT_ID, amount);
+        pointPessimisticService.charge(POINT_ID, amount);
+        pointOptimisticService.charge(POINT_ID, amount);
+    }
+
+    @Then("변경 피드 구독자는 피드용 계좌의 이벤트 {int}건을 version 순서로 받는다")
+    public void verifyOrderedDelivery(int expectedCount) throws InterruptedException {
+        received = awaitEvents(startOffset, expectedCount);
+        assertThat(received).extracting(PointChangeEvent::getBalance).containsExactly(100L, 200L, 300L);
+        assertThat(received).extracting(PointChangeEvent::getVersion).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Then("두 번째 이벤트 id에서 다시 구독하면 마지막 이벤트 {int}건만 받는다")
+    public void verifyResume(int expectedCount) throws InterruptedException {
+        List<PointChangeEvent> resumed = awaitEvents(received.get(1).getId(), expectedCount);
+        assertThat(resumed).extracting(PointChangeEvent::getId).containsExactly(received.get(2).getId());
+    }
+
+    private List<PointChangeEvent> awaitEvents(long afterId, int expectedCount) throws InterruptedException {
+        List<PointChangeEvent> events = new CopyOnWriteArrayList<>();
+        PointChangeRelay.Subscription subscription = pointChangeRelay.subscribe(afterId, batch ->
+            batch.stream().filter(event -> event.getPointId().equals(POINT_ID)).forEach(events::add));
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DELIVERY_TIMEOUT_MILLIS);
+            while (events.size() < expectedCount && System.nanoTime() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(50);
+            }
+        } finally {
+            subscription.cancel();
+        }
+        assertThat(events).hasSize(expectedCount);
+        return events;
+    }
+}
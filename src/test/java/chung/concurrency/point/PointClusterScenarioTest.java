@@ -0,0 +1,71 @@
+package chung.concurrency.point;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import chung.concurrency.support.ClusterHarness;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 같은 DB를 공유하는 여러 인스턴스에 HTTP로 충전을 나눠 보내 전략별 정합성과 처리량을 잰다.
+ * 노드를 여러 개 띄우므로 ./gradlew test에서는 빠지고 ./gradlew clusterTest로만 실행된다.
+ * -Dcluster.nodes=1,2,4,8 -Dcluster.requests=32 -Dcluster.concurrency=16 -Dcluster.jdbc-url=... 로 조정한다.
+ */
+@Tag("cluster")
+class PointClusterScenarioTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PointClusterScenarioTest.class);
+    private static final long POINT_ID = 100L;
+    private static final long AMOUNT = 10L;
+    /** DB 또는 공유 락 테이블로 직렬화하므로 노드 수와 무관하게 잔액이 성공한 충전의 합과 같아야 하는 전략 */
+    private static final Set<String> CLUSTER_SAFE =
+        Set.of("pessimistic", "optimistic", "optimistic-merge", "redis-lock");
+
+    @Test
+    @DisplayName("노드 수를 늘려가며 전략별로 잔액 정합성과 처리량을 보고하고, 클러스터 안전 전략은 정합성을 지킨다")
+    void reportsCorrectnessAndThroughputPerNodeCount() {
+        // given
+        List<Integer> nodeCounts = Arrays.stream(System.getProperty("cluster.nodes", "1,2,4,8").split(","))
+            .map(String::trim)
+            .map(Integer::valueOf)
+            .toList();
+        int requests = Integer.getInteger("cluster.requests", 32);
+        int concurrency = Integer.getInteger("cluster.concurrency", 16);
+        List<String> violations = new ArrayList<>();
+
+        try (ClusterHarness cluster = ClusterHarness.start(Collections.max(nodeCounts))) {
+            for (String strategy : cluster.strategies()) {
+                for (int nodes : nodeCounts) {
+                    // when
+                    cluster.resetPoint(POINT_ID, 0L);
+                    ClusterHarness.LoadResult result =
+                        cluster.drive(strategy, nodes, POINT_ID, AMOUNT, requests, concurrency);
+                    long expected = AMOUNT * result.succeeded();
+                    long actual = cluster.balanceOf(POINT_ID);
+
+                    log.info("[cluster] strategy={} nodes={} ok={}/{} statuses={} balance={} expected={} correct={} "
+                            + "throughput={}/s",
+                        strategy, nodes, result.succeeded(), requests, result.statuses(), actual, expected,
+                        actual == expected, String.format("%.1f", result.throughputPerSecond()));
+                    if (CLUSTER_SAFE.contains(strategy) && actual != expected) {
+                        violations.add(strategy + " with " + nodes + " nodes: balance=" + actual
+                            + ", expected=" + expected);
+                    }
+                }
+            }
+        }
+
+        // then
+        assertThat(violations).isEmpty();
+    }
+}
@@ -0,0 +1,130 @@
+package chung.concurrency.point;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import io.cucumber.java.After;
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import chung.concurrency.deadline.DeadlineExceededException;
+import chung.concurrency.deadline.RequestDeadline;
+import chung.concurrency.lock.RedisLockExecutor;
+import chung.concurrency.point.application.PointPartitionedExecutor;
+import chung.concurrency.point.application.PointPessimisticService;
+import chung.concurrency.point.application.PointRedisLockFacade;
+import chung.concurrency.point.domain.Point;
+import chung.concurrency.point.domain.PointRepository;
+
+/**
+ * 요청 기한이 락 대기, 트랜잭션 안의 쓰기, 파티션 큐에서 각각 작업을 끊는지 확인한다.
+ */
+public class PointDeadlineSteps {
+
+    private static final long POINT_ID = 11L;
+    private static final Duration HOLDER_LEASE = Duration.ofSeconds(5);
+    private static final long PARTITION_COMMIT_HEAD_START_MILLIS = 50L;
+
+    @Autowired
+    private PointRepository pointRepository;
+
+    @Autowired
+    private RedisLockExecutor redisLockExecutor;
+
+    @Autowired
+    private PointRedisLockFacade pointRedisLockFacade;
+
+    @Autowired
+    private PointPessimisticService pointPessimisticService;
+
+    @Autowired
+    private PointPartitionedExecutor pointPartitionedExecutor;
+
+    private CountDownLatch releaseHolder;
+    private CompletableFuture<Void> holder;
+    private Throwable failure;
+    private long elapsedNanos;
+
+    @Given("Deadline 계좌가 초기 잔액 {long}원으로 존재한다")
+    public void setupPoint(long balance) {
+        pointRepository.deleteAll();
+        pointRepository.save(new Point(POINT_ID, balance));
+    }
+
+    @Given("다른 소유자가 Deadline 계좌의 분산 락을 쥐고 있다")
+    public void holdLock() throws InterruptedException {
+        CountDownLatch acquired = new CountDownLatch(1);
+        releaseHolder = new CountDownLatch(1);
+        holder = CompletableFuture.runAsync(() -> redisLockExecutor.executeWithLock(POINT_ID, () -> {
+            acquired.countDown();
+            try {
+                releaseHolder.await(HOLDER_LEASE.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }, HOLDER_LEASE, HOLDER_LEASE));
+        assertThat(acquired.await(HOLDER_LEASE.toMillis(), TimeUnit.MILLISECONDS)).isTrue();
+    }
+
+    @When("기한 {long}ms로 {long}원을 Redis 락 파사드로 충전한다")
+    public void chargeWithRedisLock(long timeoutMillis, long amount) {
+        chargeWithin(timeoutMillis, () -> pointRedisLockFacade.charge(POINT_ID, amount));
+    }
+
+    @When("기한 {long}ms로 {long}원을 비관적 락으로 충전한다")
+    public void chargePessimistic(long timeoutMillis, long amount) {
+        chargeWithin(timeoutMillis, () -> pointPessimisticService.charge(POINT_ID, amount));
+    }
+
+    @When("기한 없는 {long}원 충전이 파티션에서 커밋되는 동안 기한 {long}ms로 {long}원을 Partitioned 실행기로 충전한다")
+    public void chargePartitionedBehindCommit(long firstAmount, long timeoutMillis, long amount)
+        throws InterruptedException {
+        CompletableFuture<Point> first =
+            CompletableFuture.supplyAsync(() -> pointPartitionedExecutor.charge(POINT_ID, firstAmount));
+        // 앞선 요청이 배치로 꺼내져 커밋(200ms) 중일 때 뒤 요청이 같은 파티션 큐에서 기다리게 한다.
+        TimeUnit.MILLISECONDS.sleep(PARTITION_COMMIT_HEAD_START_MILLIS);
+        chargeWithin(timeoutMillis, () -> pointPartitionedExecutor.charge(POINT_ID, amount));
+        assertThat(first.join().getBalance()).isEqualTo(firstAmount);
+    }
+
+    @Then("충전은 기한 초과로 실패한다")
+    public void verifyDeadlineExceeded() {
+        assertThat(failure).isInstanceOf(DeadlineExceededException.class);
+    }
+
+    @Then("기한 초과는 {long}ms 안에 알려진다")
+    public void verifyFailedFast(long maxMillis) {
+        assertThat(TimeUnit.NANOSECONDS.toMillis(elapsedNanos)).isLessThan(maxMillis);
+    }
+
+    @Then("Deadline 최종 잔액은 {long}원이 된다")
+    public void verifyBalance(long expectedBalance) {
+        Point point = pointRepository.findById(POINT_ID).orElseThrow();
+        assertThat(point.getBalance()).isEqualTo(expectedBalance);
+    }
+
+    @After
+    public void releaseLock() {
+        if (releaseHolder != null) {
+            releaseHolder.countDown();
+            holder.join();
+            releaseHolder = null;
+        }
+    }
+
+    private void chargeWithin(long timeoutMillis, Runnable charge) {
+        long startedAt = System.nanoTime();
+        failure = catchThrowable(() -> RequestDeadline.callWithin(Duration.ofMillis(timeoutMillis), () -> {
+            charge.run();
+            return null;
+        }));
+        elapsedNanos = System.nanoTime() - startedAt;
+    }
+}
@@ -9,8 +9,10 @@ import io.cucumber.java.en.When;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import chung.concurrency.point.application.ConflictCircuitBreaker;
 import chung.concurrency.point.application.PointOptimisticService;
 import chung.concurrency.point.application.PointConcurrencyBusyException;
+import chung.concurrency.point.application.RetryBudget;
 import chung.concurrency.point.domain.Point;
 import chung.concurrency.point.domain.PointRepository;
 import chung.concurrency.support.ConcurrentTestExecutor;
@@ -29,6 +31,12 @@ public class PointOptimisticSteps {
     @Autowired
     private PointOptimisticService pointOptimisticService;
 
+    @Autowired
+    private ConflictCircuitBreaker conflictCircuitBreaker;
+
+    @Autowired
+    private RetryBudget retryBudget;
+
     private ConcurrentTestExecutor.Result executionResult;
     private Integer overrideMaxRetry;
     private final AtomicInteger maxObservedRetryAttempt = new AtomicInteger();
@@ -41,6 +49,13 @@ public class PointOptimisticSteps {
         executionResult = null;
         overrideMaxRetry = null;
         maxObservedRetryAttempt.set(0);
+        conflictCircuitBreaker.reset(POINT_ID);
+        retryBudget.reset(POINT_ID);
+    }
+
+    @Given("Optimistic 충돌 서킷 브레이커가 열려 있다")
+    public void tripCircuitBreaker() {
+        conflictCircuitBreaker.trip(POINT_ID);
     }
 
     @When("{int}명이 동시에 {long}원을 Optimistic 서비스로 충전한다")
@@ -55,6 +70,12 @@ public class PointOptimisticSteps {
             });
     }
 
+    @When("{int}명이 동시에 {long}원을 Optimistic merge 모드로 충전한다")
+    public void chargeConcurrentlyMerging(int userCount, long amountPerUser) throws InterruptedException {
+        executionResult = ConcurrentTestExecutor.run(userCount,
+            () -> pointOptimisticService.chargeMergingOnConflict(POINT_ID, amountPerUser));
+    }
+
     @When("Optimistic 재시도 한도를 {int}회로 제한한다")
     public void overrideRetryLimit(int maxRetry) {
         overrideMaxRetry = maxRetry;
@@ -79,6 +100,12 @@ public class PointOptimisticSteps {
         assertThat(maxObservedRetryAttempt.get()).isLessThanOrEqualTo(expectedMaxRetry);
     }
 
+    @Then("Optimistic 잔액은 {long}원 그대로다")
+    public void verifyBalanceUnchanged(long expectedBalance) {
+        Point point = pointRepository.findById(POINT_ID).orElseThrow();
+        assertThat(point.getBalance()).isEqualTo(expectedBalance);
+    }
+
     @Then("Optimistic 전략은 혼잡 상태를 사용자에게 알린다")
     public void verifyBusyFailure() {
         assertThat(executionResult)
@@ -0,0 +1,58 @@
+package chung.concurrency.point;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import chung.concurrency.point.application.PointPartitionedExecutor;
+import chung.concurrency.point.domain.Point;
+import chung.concurrency.point.domain.PointRepository;
+import chung.concurrency.support.ConcurrentTestExecutor;
+
+/**
+ * 파티션 단일 writer 전략의 정합성과 배치 커밋 효과를 검증한다.
+ */
+public class PointPartitionedSteps {
+
+    private static final long POINT_ID = 6L;
+
+    @Autowired
+    private PointRepository pointRepository;
+
+    @Autowired
+    private PointPartitionedExecutor pointPartitionedExecutor;
+
+    private ConcurrentTestExecutor.Result executionResult;
+    private long batchesBefore;
+
+    @Given("Partitioned 계좌가 초기 잔액 {long}원으로 존재한다")
+    public void setupPoint(long balance) {
+        pointRepository.deleteAll();
+        pointRepository.save(new Point(POINT_ID, balance));
+        batchesBefore = pointPartitionedExecutor.committedBatchCount();
+    }
+
+    @When("{int}명이 동시에 {long}원을 Partitioned 실행기로 충전한다")
+    public void chargeConcurrently(int userCount, long amountPerUser) {
+        executionResult = ConcurrentTestExecutor.run(userCount,
+            () -> pointPartitionedExecutor.charge(POINT_ID, amountPerUser));
+    }
+
+    @Then("Partitioned 최종 잔액은 {long}원이 된다")
+    public void verifyBalance(long expectedBalance) {
+        executionResult.assertNoAsyncError();
+        Point point = pointRepository.findById(POINT_ID).orElseThrow();
+        assertThat(point.getBalance()).isEqualTo(expectedBalance);
+    }
+
+    /**
+     * 요청마다 커밋하는 전략(ReentrantLock 등)은 충전 건수만큼 커밋하므로, 배치 효과는 커밋 수로 비교한다.
+     */
+    @Then("Partitioned 실행기는 {int}건 이하의 커밋으로 처리한다")
+    public void verifyBatching(int maxCommits) {
+        assertThat(pointPartitionedExecutor.committedBatchCount() - batchesBefore).isLessThanOrEqualTo(maxCommits);
+    }
+}
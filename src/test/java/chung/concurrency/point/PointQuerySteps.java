@@ -0,0 +1,56 @@
+package chung.concurrency.point;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import chung.concurrency.point.application.PointQueryService;
+import chung.concurrency.point.application.PointService;
+import chung.concurrency.point.domain.Point;
+import chung.concurrency.point.domain.PointRepository;
+
+/**
+ * 조회 서비스가 readOnly 트랜잭션으로 읽고, 충전 version 토큰이 있으면 그 이상을 읽는지 확인한다.
+ * 테스트 환경에는 레플리카가 없으므로 라우팅 자체는 ReadReplicaRoutingDataSourceTest가 검증한다.
+ */
+public class PointQuerySteps {
+
+    private static final long POINT_ID = 7L;
+
+    @Autowired
+    private PointRepository pointRepository;
+
+    @Autowired
+    private PointService pointService;
+
+    @Autowired
+    private PointQueryService pointQueryService;
+
+    private long versionToken;
+
+    @Given("조회용 계좌가 초기 잔액 {long}원으로 존재한다")
+    public void setupPoint(long balance) {
+        pointRepository.deleteAll();
+        pointRepository.save(new Point(POINT_ID, balance));
+    }
+
+    @When("조회용 계좌에 {long}원을 충전하고 version 토큰을 받는다")
+    public void chargeAndKeepVersion(long amount) {
+        versionToken = pointService.charge(POINT_ID, amount).getVersion();
+    }
+
+    @Then("version 토큰으로 조회한 잔액은 {long}원이다")
+    public void verifyReadYourWrites(long expectedBalance) {
+        Point point = pointQueryService.getPoint(POINT_ID, versionToken);
+        assertThat(point.getVersion()).isGreaterThanOrEqualTo(versionToken);
+        assertThat(point.getBalance()).isEqualTo(expectedBalance);
+    }
+
+    @Then("토큰 없이 readOnly로 조회한 잔액도 {long}원이다")
+    public void verifyReadOnlyQuery(long expectedBalance) {
+        assertThat(pointQueryService.getPoint(POINT_ID).getBalance()).isEqualTo(expectedBalance);
+    }
+}
@@ -0,0 +1,112 @@
+package chung.concurrency.point;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import chung.concurrency.point.application.ConflictCircuitBreaker;
+import chung.concurrency.point.application.RetryBudget;
+import chung.concurrency.point.domain.Point;
+import chung.concurrency.point.domain.PointRepository;
+import chung.concurrency.quota.application.QuotaChargeFacade;
+import chung.concurrency.quota.application.QuotaExceededException;
+import chung.concurrency.quota.application.QuotaManager;
+import chung.concurrency.quota.application.QuotaScope;
+import chung.concurrency.quota.domain.QuotaCounterRepository;
+import chung.concurrency.support.ConcurrentTestExecutor;
+
+/**
+ * 테넌트/캠페인 한도를 통과한 충전만 반영되는지, 한도 검사가 충전마다 DB에 가지 않는지 확인한다.
+ */
+public class PointQuotaSteps {
+
+    private static final long POINT_ID = 10L;
+
+    @Autowired
+    private PointRepository pointRepository;
+
+    @Autowired
+    private QuotaCounterRepository quotaCounterRepository;
+
+    @Autowired
+    private QuotaManager quotaManager;
+
+    @Autowired
+    private QuotaChargeFacade quotaChargeFacade;
+
+    @Autowired
+    private ConflictCircuitBreaker conflictCircuitBreaker;
+
+    @Autowired
+    private RetryBudget retryBudget;
+
+    private final AtomicInteger exceeded = new AtomicInteger();
+    private ConcurrentTestExecutor.Result executionResult;
+    private long reservedChunksBefore;
+
+    @Given("한도 계좌가 초기 잔액 {long}원으로 존재한다")
+    public void setupPoint(long balance) {
+        pointRepository.deleteAll();
+        pointRepository.save(new Point(POINT_ID, balance));
+        quotaCounterRepository.deleteAll();
+        conflictCircuitBreaker.reset(POINT_ID);
+        retryBudget.reset(POINT_ID);
+        exceeded.set(0);
+        executionResult = null;
+    }
+
+    @Given("테넌트 {string}의 일일 한도는 {long}원이다")
+    public void defineTenantLimit(String tenantId, long dailyLimit) {
+        quotaManager.defineDailyLimit(QuotaScope.tenant(tenantId), dailyLimit);
+    }
+
+    @Given("캠페인 {string}의 일일 한도는 {long}원이다")
+    public void defineCampaignLimit(String campaignId, long dailyLimit) {
+        quotaManager.defineDailyLimit(QuotaScope.campaign(campaignId), dailyLimit);
+    }
+
+    @When("{int}명이 동시에 테넌트 {string} 캠페인 {string}으로 {long}원을 충전한다")
+    public void chargeConcurrently(int userCount, String tenantId, String campaignId, long amount) {
+        reservedChunksBefore = quotaManager.reservedChunkCount();
+        executionResult = ConcurrentTestExecutor.run(userCount, () -> {
+            try {
+                quotaChargeFacade.charge(tenantId, campaignId, POINT_ID, amount);
+            } catch (QuotaExceededException ex) {
+                exceeded.incrementAndGet();
+            }
+        });
+    }
+
+    @Then("한도 계좌 잔액은 {long}원이다")
+    public void verifyBalance(long expectedBalance) {
+        executionResult.assertNoAsyncError();
+        Point point = pointRepository.findById(POINT_ID).orElseThrow();
+        assertThat(point.getBalance()).isEqualTo(expectedBalance);
+    }
+
+    @Then("한도 초과로 거절된 충전은 {int}건이다")
+    public void verifyExceeded(int expectedExceeded) {
+        assertThat(exceeded.get()).isEqualTo(expectedExceeded);
+    }
+
+    /**
+     * 캠페인 한도에서 거절된 충전이 먼저 잡은 테넌트 한도를 되돌렸다면, 테넌트에는 반영된 충전만큼만 쓰인 상태여야 한다.
+     */
+    @Then("테넌트 {string}의 남은 한도로 {long}원을 {int}번 더 받을 수 있고 그다음은 거절된다")
+    public void verifyTenantRemaining(String tenantId, long amount, int remainingCount) {
+        QuotaScope tenant = QuotaScope.tenant(tenantId);
+        for (int i = 0; i < remainingCount; i++) {
+            assertThat(quotaManager.tryAcquire(tenant, amount)).isTrue();
+        }
+        assertThat(quotaManager.tryAcquire(tenant, amount)).isFalse();
+    }
+
+    @Then("한도 chunk 예약은 {int}회 이하로 일어난다")
+    public void verifyReservations(int maxReservations) {
+        assertThat(quotaManager.reservedChunkCount() - reservedChunksBefore).isLessThanOrEqualTo(maxReservations);
+    }
+}
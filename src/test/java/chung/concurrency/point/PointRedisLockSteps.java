@@ -1,20 +1,29 @@
 package chung.concurrency.point;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import chung.concurrency.point.application.PointFencingTokenRejectedException;
 import chung.concurrency.point.application.PointRedisLockFacade;
 import chung.concurrency.point.domain.Point;
 import chung.concurrency.point.domain.PointRepository;
+import chung.concurrency.schedule.SchedulePoint;
 import chung.concurrency.support.ConcurrentTestExecutor;
 
 public class PointRedisLockSteps {
 
     private static final long POINT_ID = 5L;
+    private static final Duration STALE_OWNER_WAIT = Duration.ofSeconds(5L);
 
     @Autowired
     private PointRepository pointRepository;
@@ -23,6 +32,11 @@ public class PointRedisLockSteps {
     private PointRedisLockFacade pointRedisLockFacade;
 
     private ConcurrentTestExecutor.Result executionResult;
+    private Throwable staleOwnerFailure;
+    private AutoCloseable staleOwnerHook;
+    private CompletableFuture<Point> staleOwnerCharge;
+    private final CountDownLatch staleOwnerAcquired = new CountDownLatch(1);
+    private final CountDownLatch staleOwnerResume = new CountDownLatch(1);
 
     @Given("RedisLock 계좌가 초기 잔액 {long}원으로 존재한다")
     public void setupPoint(long balance) {
@@ -36,10 +50,60 @@ public class PointRedisLockSteps {
             () -> pointRedisLockFacade.charge(POINT_ID, amountPerUser));
     }
 
+    @When("이전 소유자가 lease {long}ms로 락을 얻어 {long}원 충전 도중 멈춘다")
+    public void acquireAndStall(long leaseMillis, long amount) throws InterruptedException {
+        Thread[] staleOwner = new Thread[1];
+        staleOwnerHook = SchedulePoint.install(point -> {
+            if (point == SchedulePoint.LOCK_ACQUIRED && Thread.currentThread() == staleOwner[0]) {
+                staleOwnerAcquired.countDown();
+                awaitQuietly(staleOwnerResume);
+            }
+        });
+        staleOwnerCharge = new CompletableFuture<>();
+        staleOwner[0] = new Thread(() -> {
+            try {
+                staleOwnerCharge.complete(pointRedisLockFacade.charge(POINT_ID, amount,
+                    Duration.ofMillis(leaseMillis), STALE_OWNER_WAIT));
+            } catch (Throwable e) {
+                staleOwnerCharge.completeExceptionally(e);
+            }
+        });
+        staleOwner[0].start();
+        assertThat(staleOwnerAcquired.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @When("lease가 만료된 뒤 새 소유자가 {long}원을 Redis 락 파사드로 충전한다")
+    public void chargeAfterLeaseExpiry(long amount) throws InterruptedException {
+        executionResult = ConcurrentTestExecutor.run(1, () -> pointRedisLockFacade.charge(POINT_ID, amount));
+    }
+
+    @When("멈췄던 이전 소유자가 깨어나 충전을 이어간다")
+    public void resumeStaleOwner() throws Exception {
+        staleOwnerResume.countDown();
+        try {
+            staleOwnerFailure = catchThrowable(() -> staleOwnerCharge.get(10, TimeUnit.SECONDS));
+        } finally {
+            staleOwnerHook.close();
+        }
+    }
+
+    @Then("이전 소유자의 충전은 fencing token 검사로 거절된다")
+    public void verifyStaleOwnerRejected() {
+        assertThat(staleOwnerFailure).hasCauseInstanceOf(PointFencingTokenRejectedException.class);
+    }
+
     @Then("RedisLock 최종 잔액은 {long}원이 된다")
     public void verifyBalance(long expectedBalance) {
         executionResult.assertNoAsyncError();
         Point point = pointRepository.findById(POINT_ID).orElseThrow();
         assertThat(point.getBalance()).isEqualTo(expectedBalance);
     }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
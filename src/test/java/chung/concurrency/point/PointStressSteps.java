@@ -0,0 +1,114 @@
+package chung.concurrency.point;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+
+import chung.concurrency.point.application.ConflictCircuitBreaker;
+import chung.concurrency.point.application.PointConcurrencyBusyException;
+import chung.concurrency.point.application.PointOptimisticService;
+import chung.concurrency.point.application.RetryBudget;
+import chung.concurrency.point.domain.Point;
+import chung.concurrency.point.domain.PointChangeEvent;
+import chung.concurrency.point.domain.PointChangeEventRepository;
+import chung.concurrency.point.domain.PointRepository;
+import chung.concurrency.support.StressHarness;
+
+/**
+ * StressHarness로 실제 DB 충전 경로를 반복 실행한다. 충전 코드의 CHARGE_AFTER_READ 지점에서 교란이 들어간다.
+ * 혼잡으로 거절된 충전은 허용하되, 잔액과 outbox 이벤트는 성공한 충전만큼만 늘어나야 한다.
+ * -Dstress.iterations로 반복 횟수를 늘리고, 실패 메시지의 -Dstress.seed로 재현한다.
+ */
+public class PointStressSteps {
+
+    private static final long POINT_ID = 9L;
+    private static final int EVENT_PAGE_SIZE = 1_000;
+
+    @Autowired
+    private PointRepository pointRepository;
+
+    @Autowired
+    private PointChangeEventRepository pointChangeEventRepository;
+
+    @Autowired
+    private PointOptimisticService pointOptimisticService;
+
+    @Autowired
+    private ConflictCircuitBreaker conflictCircuitBreaker;
+
+    @Autowired
+    private RetryBudget retryBudget;
+
+    private StressHarness.Report report;
+
+    @Given("스트레스 계좌가 초기 잔액 {long}원으로 존재한다")
+    public void setupPoint(long balance) {
+        pointRepository.deleteAll();
+        pointRepository.save(new Point(POINT_ID, balance));
+        report = null;
+    }
+
+    @When("{int}명이 {long}원씩 Optimistic merge 모드로 충전하는 시나리오를 무작위 스케줄로 {int}회 반복한다")
+    public void stressMergingCharges(int userCount, long amount, int iterations) {
+        report = StressHarness.run("optimistic-merge-charge", StressHarness.Options.of(userCount, iterations),
+            () -> new MergingChargeScenario(amount));
+    }
+
+    @Then("모든 반복에서 잔액과 변경 이벤트가 성공한 충전의 합과 일치한다")
+    public void verifyAllIterations() {
+        // 불변식은 반복마다 StressHarness가 검사하므로 여기까지 왔다면 모두 통과한 것이다.
+        assertThat(report).isNotNull();
+        assertThat(report.iterations()).isPositive();
+    }
+
+    private final class MergingChargeScenario implements StressHarness.Scenario {
+
+        private final long amount;
+        private final long initialBalance;
+        private final long lastEventId;
+        private final AtomicInteger succeeded = new AtomicInteger();
+
+        private MergingChargeScenario(long amount) {
+            this.amount = amount;
+            conflictCircuitBreaker.reset(POINT_ID);
+            retryBudget.reset(POINT_ID);
+            this.initialBalance = pointRepository.findById(POINT_ID).orElseThrow().getBalance();
+            this.lastEventId = pointChangeEventRepository.findMaxId().orElse(0L);
+        }
+
+        @Override
+        public void run(int threadIndex) {
+            try {
+                pointOptimisticService.chargeMergingOnConflict(POINT_ID, amount);
+                succeeded.incrementAndGet();
+            } catch (PointConcurrencyBusyException | OptimisticLockingFailureException rejected) {
+                // 혼잡으로 거절된 충전은 잔액에 반영되지 않아야 한다.
+            }
+        }
+
+        @Override
+        public void verify() {
+            long charged = amount * succeeded.get();
+            assertThat(pointRepository.findById(POINT_ID).orElseThrow().getBalance())
+                .as("balance").isEqualTo(initialBalance + charged);
+
+            List<PointChangeEvent> events = pointChangeEventRepository
+                .findByIdGreaterThanOrderByIdAsc(lastEventId, PageRequest.of(0, EVENT_PAGE_SIZE)).stream()
+                .filter(event -> event.getPointId().equals(POINT_ID))
+                .toList();
+            Set<Long> versions = new HashSet<>();
+            events.forEach(event -> assertThat(versions.add(event.getVersion())).as("duplicate version").isTrue());
+            assertThat(events.stream().mapToLong(PointChangeEvent::getAmount).sum())
+                .as("outbox amount").isEqualTo(charged);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package chung.concurrency.point;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.data.domain.PageRequest;
+
+import chung.concurrency.point.domain.PointChangeEventRepository;
+import chung.concurrency.point.domain.PointRepository;
+import chung.concurrency.warmup.WarmupRunner;
+
+/**
+ * 테스트 프로필은 warmup.enabled=false라 WarmupRunner 빈이 없으므로, 같은 설정으로 직접 만들어 한 번 실행한다.
+ */
+public class PointWarmupSteps {
+
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    @Autowired
+    private PointRepository pointRepository;
+
+    @Autowired
+    private PointChangeEventRepository pointChangeEventRepository;
+
+    private long pointCountBefore;
+    private long lastEventIdBefore;
+
+    @Given("예열 전 포인트 수와 마지막 변경 이벤트 id를 기록한다")
+    public void recordBaseline() {
+        pointCountBefore = pointRepository.count();
+        lastEventIdBefore = pointChangeEventRepository.findMaxId().orElse(0L);
+    }
+
+    @When("부팅 예열을 실행한다")
+    public void runWarmup() throws Exception {
+        beanFactory.createBean(WarmupRunner.class).run(null);
+    }
+
+    @Then("예열 후 포인트 수는 그대로다")
+    public void verifyPointCount() {
+        assertThat(pointRepository.count()).isEqualTo(pointCountBefore);
+    }
+
+    @Then("예열로 생긴 변경 이벤트는 남지 않는다")
+    public void verifyNoEvents() {
+        assertThat(pointChangeEventRepository.findByIdGreaterThanOrderByIdAsc(lastEventIdBefore, PageRequest.of(0, 1)))
+            .isEmpty();
+    }
+}
@@ -0,0 +1,79 @@
+package chung.concurrency.point.application;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConflictCircuitBreakerTest {
+
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long OPEN_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    @DisplayName("충돌률이 임계치를 넘으면 해당 포인트만 열리고 열린 시간이 지나면 닫힌다")
+    void opensOnHighConflictRateAndClosesAfterCooldown() {
+        // given
+        AtomicLong clock = new AtomicLong();
+        ConflictCircuitBreaker breaker = new ConflictCircuitBreaker(WINDOW_NANOS, 10, 0.8, OPEN_NANOS, clock::get);
+
+        // when
+        breaker.onSuccess(1L, 1);
+        for (int i = 0; i < 9; i++) {
+            breaker.onConflict(1L, 1);
+        }
+
+        // then
+        assertThat(breaker.allows(1L)).isFalse();
+        assertThat(breaker.allows(2L)).isTrue();
+        clock.addAndGet(OPEN_NANOS);
+        assertThat(breaker.allows(1L)).isTrue();
+    }
+
+    @Test
+    @DisplayName("표본 수가 부족하거나 충돌률이 임계치 이하면 열리지 않는다")
+    void staysClosedBelowThresholds() {
+        // given
+        AtomicLong clock = new AtomicLong();
+        ConflictCircuitBreaker breaker = new ConflictCircuitBreaker(WINDOW_NANOS, 10, 0.8, OPEN_NANOS, clock::get);
+
+        // when
+        for (int i = 0; i < 9; i++) {
+            breaker.onConflict(1L, 1);
+        }
+        clock.addAndGet(WINDOW_NANOS);
+        for (int i = 0; i < 8; i++) {
+            breaker.onConflict(2L, 1);
+        }
+        breaker.onSuccess(2L, 1);
+        breaker.onSuccess(2L, 1);
+
+        // then
+        assertThat(breaker.allows(1L)).isTrue();
+        breaker.onConflict(1L, 1);
+        assertThat(breaker.allows(1L)).isTrue();
+        assertThat(breaker.allows(2L)).isTrue();
+    }
+
+    @Test
+    @DisplayName("수동으로 연 포인트는 reset 전까지 호출을 막는다")
+    void tripAndReset() {
+        // given
+        AtomicLong clock = new AtomicLong();
+        ConflictCircuitBreaker breaker = new ConflictCircuitBreaker(WINDOW_NANOS, 10, 0.8, OPEN_NANOS, clock::get);
+
+        // when
+        breaker.trip(1L);
+
+        // then
+        assertThat(breaker.allows(1L)).isFalse();
+        clock.addAndGet(OPEN_NANOS + WINDOW_NANOS);
+        breaker.onSuccess(1L, 1);
+        assertThat(breaker.allows(1L)).isFalse();
+        breaker.reset(1L);
+        assertThat(breaker.allows(1L)).isTrue();
+    }
+}
@@ -0,0 +1,131 @@
+package chung.concurrency.point.application;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import chung.concurrency.point.domain.PointChangeEvent;
+import chung.concurrency.point.domain.PointChangeEventRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PointChangeRelayTest {
+
+    private static final long POINT_ID = 13L;
+    private static final long OTHER_POINT_ID = 14L;
+
+    @Autowired
+    private PointChangeEventRepository pointChangeEventRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    @DisplayName("버퍼가 넘친 느린 구독자만 끊기고, relay와 다른 구독자는 기다리지 않는다")
+    void dropsOverflowingSubscriberWithoutBlockingOthers() throws Exception {
+        // given
+        ExecutorService deliveryExecutor = Executors.newCachedThreadPool();
+        PointChangeRelay relay = new PointChangeRelay(pointChangeEventRepository, 2, deliveryExecutor);
+        relay.seekToLatest();
+        CountDownLatch slowEntered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch dropped = new CountDownLatch(1);
+        List<PointChangeEvent> received = new CopyOnWriteArrayList<>();
+        relay.subscribe(relay.watermark(), events -> {
+            slowEntered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+        }, dropped::countDown);
+        relay.subscribe(relay.watermark(), received::addAll);
+
+        try {
+            // when: 느린 구독자는 첫 배치에서 멈춰 있고, 빠른 구독자는 틱마다 버퍼를 비운다
+            long relayNanos = 0L;
+            for (int version = 1; version <= 4; version++) {
+                save(POINT_ID, version);
+                long startedAt = System.nanoTime();
+                relay.relay(startedAt);
+                relayNanos += System.nanoTime() - startedAt;
+                awaitSize(received, version);
+                if (version == 1) {
+                    assertThat(slowEntered.await(1, TimeUnit.SECONDS)).isTrue();
+                }
+            }
+
+            // then
+            assertThat(dropped.await(1, TimeUnit.SECONDS)).isTrue();
+            assertThat(relayNanos).isLessThan(TimeUnit.SECONDS.toNanos(1));
+            assertThat(received).extracting(PointChangeEvent::getVersion).containsExactly(1L, 2L, 3L, 4L);
+        } finally {
+            release.countDown();
+            deliveryExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("grace 안에 커밋되지 않아 건너뛴 id도 늦게 커밋되면 다시 조회해 전달한다")
+    void deliversLateCommitAfterSkippingGap() throws Exception {
+        // given
+        PointChangeRelay relay = new PointChangeRelay(pointChangeEventRepository, 100, Runnable::run);
+        relay.seekToLatest();
+        List<PointChangeEvent> received = new CopyOnWriteArrayList<>();
+        relay.subscribe(relay.watermark(), received::addAll);
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Long> slowWriter = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            PointChangeEvent event = pointChangeEventRepository.saveAndFlush(new PointChangeEvent(POINT_ID, 100L, 100L, 1L));
+            inserted.countDown();
+            awaitQuietly(commit);
+            return event.getId();
+        }));
+        assertThat(inserted.await(5, TimeUnit.SECONDS)).isTrue();
+        long committedId = save(OTHER_POINT_ID, 1L);
+        long now = System.nanoTime();
+
+        relay.relay(now);
+        assertThat(received).isEmpty();
+        relay.relay(now + PointChangeRelay.DEFAULT_GAP_GRACE_NANOS);
+        assertThat(received).extracting(PointChangeEvent::getId).containsExactly(committedId);
+        assertThat(relay.skippedIdCount()).isPositive();
+
+        // when
+        commit.countDown();
+        long lateId = slowWriter.get(5, TimeUnit.SECONDS);
+        relay.relay(now + PointChangeRelay.DEFAULT_GAP_GRACE_NANOS + PointChangeRelay.GAP_RESCAN_INTERVAL_NANOS);
+
+        // then
+        assertThat(received).extracting(PointChangeEvent::getId).containsExactly(committedId, lateId);
+        assertThat(relay.lateEventCount()).isEqualTo(1L);
+    }
+
+    private long save(long pointId, long version) {
+        return pointChangeEventRepository.save(new PointChangeEvent(pointId, 100L, version * 100L, version)).getId();
+    }
+
+    private static void awaitSize(List<?> list, int expectedSize) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (list.size() < expectedSize && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
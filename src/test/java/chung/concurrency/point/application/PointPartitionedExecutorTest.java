@@ -0,0 +1,182 @@
+package chung.concurrency.point.application;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import chung.concurrency.deadline.DeadlineExceededException;
+import chung.concurrency.deadline.RequestDeadline;
+import chung.concurrency.point.domain.Point;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+class PointPartitionedExecutorTest {
+
+    @Test
+    @DisplayName("종료된 실행기에 들어온 충전은 기다리지 않고 바로 실패한다")
+    void rejectsChargeAfterShutdown() {
+        // given
+        PointPartitionedExecutor executor = new PointPartitionedExecutor(new SummingPointService());
+        executor.shutdown();
+
+        // when & then
+        assertThatThrownBy(() -> CompletableFuture.supplyAsync(() -> executor.charge(1L, 100L))
+            .get(1, TimeUnit.SECONDS))
+            .hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("종료와 경합한 충전도 커밋되거나 실패로 끝나며, 커밋된 충전만 반영된다")
+    void chargesRacingShutdownAlwaysComplete() throws Exception {
+        // given
+        SummingPointService pointService = new SummingPointService();
+        PointPartitionedExecutor executor = new PointPartitionedExecutor(pointService);
+        int producers = 32;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService threads = Executors.newFixedThreadPool(producers);
+        List<CompletableFuture<Point>> charges = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < producers; i++) {
+            long pointId = i % 8;
+            charges.add(CompletableFuture.supplyAsync(() -> {
+                awaitQuietly(start);
+                return executor.charge(pointId, 1L);
+            }, threads));
+        }
+        start.countDown();
+        executor.shutdown();
+
+        // then
+        long succeeded = 0;
+        for (CompletableFuture<Point> charge : charges) {
+            try {
+                charge.get(5, TimeUnit.SECONDS);
+                succeeded++;
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(IllegalStateException.class);
+            }
+        }
+        threads.shutdownNow();
+        assertThat(pointService.charged.get()).isEqualTo(succeeded);
+    }
+
+    @Test
+    @DisplayName("앞선 배치가 커밋 중이어도 호출자는 기한까지만 기다리고, 포기한 충전은 나중에 커밋되지 않는다")
+    void stopsWaitingAtDeadlineAndSkipsAbandonedCharge() throws Exception {
+        // given
+        SummingPointService pointService = new SummingPointService();
+        pointService.holdCommit = new CountDownLatch(1);
+        PointPartitionedExecutor executor = new PointPartitionedExecutor(pointService);
+        CompletableFuture<Point> first = CompletableFuture.supplyAsync(() -> executor.charge(1L, 100L));
+        assertThat(pointService.commitEntered.await(1, TimeUnit.SECONDS)).isTrue();
+
+        // when
+        long startedAt = System.nanoTime();
+        Throwable failure = catchThrowable(() -> RequestDeadline.callWithin(Duration.ofMillis(100),
+            () -> executor.charge(1L, 200L)));
+        long elapsedNanos = System.nanoTime() - startedAt;
+        pointService.holdCommit.countDown();
+        first.get(1, TimeUnit.SECONDS);
+        executor.charge(1L, 300L);
+
+        // then
+        assertThat(failure).isInstanceOf(DeadlineExceededException.class);
+        assertThat(elapsedNanos).isLessThan(TimeUnit.SECONDS.toNanos(1));
+        assertThat(pointService.charged.get()).isEqualTo(400L);
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("배치 커밋은 요청의 기한 안에서 하고, 기한 없는 요청이 있으면 기한 없이 커밋한다")
+    void commitsBatchWithinRequestDeadline() {
+        // given
+        SummingPointService pointService = new SummingPointService();
+        PointPartitionedExecutor executor = new PointPartitionedExecutor(pointService);
+
+        // when
+        RequestDeadline.callWithin(Duration.ofSeconds(5), () -> executor.charge(1L, 100L));
+        executor.charge(1L, 100L);
+
+        // then
+        assertThat(pointService.deadlines).hasSize(2);
+        assertThat(pointService.deadlines.get(0)).isNotNull();
+        assertThat(pointService.deadlines.get(0).remainingNanos()).isLessThanOrEqualTo(TimeUnit.SECONDS.toNanos(5));
+        assertThat(pointService.deadlines.get(1)).isNull();
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("처리 지연을 끈 스레드(예열)에서 온 요청만 담긴 배치일 때만 워커도 지연을 끈다")
+    void suspendsDelayOnlyForSuspendedRequests() {
+        // given
+        SummingPointService pointService = new SummingPointService();
+        PointPartitionedExecutor executor = new PointPartitionedExecutor(pointService);
+
+        // when
+        try (ProcessingDelay.Suspension ignored = ProcessingDelay.suspend()) {
+            executor.charge(1L, 100L);
+        }
+        executor.charge(1L, 100L);
+
+        // then
+        assertThat(pointService.delaySuspended).containsExactly(true, false);
+        executor.shutdown();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * DB 없이 합산만 하는 PointService. 커밋된 충전 합계와 커밋마다 워커 스레드에 걸린 기한, 처리 지연을 껐는지를 기록합니다.
+     * holdCommit을 바꾸면 그 latch가 열릴 때까지 커밋을 붙잡습니다.
+     */
+    private static final class SummingPointService extends PointService {
+
+        private final AtomicLong charged = new AtomicLong();
+        private final List<RequestDeadline> deadlines = new CopyOnWriteArrayList<>();
+        private final List<Boolean> delaySuspended = new CopyOnWriteArrayList<>();
+        private final CountDownLatch commitEntered = new CountDownLatch(1);
+        private volatile CountDownLatch holdCommit = new CountDownLatch(0);
+
+        private SummingPointService() {
+            super(null, null);
+        }
+
+        @Override
+        public Map<Long, Point> chargeAll(Map<Long, Long> amountsByPointId) {
+            deadlines.add(RequestDeadline.current());
+            delaySuspended.add(ProcessingDelay.isSuspended());
+            commitEntered.countDown();
+            awaitQuietly(holdCommit);
+            Map<Long, Point> points = new LinkedHashMap<>();
+            amountsByPointId.forEach((pointId, amount) -> {
+                charged.addAndGet(amount);
+                points.put(pointId, new Point(pointId, amount));
+            });
+            return points;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package chung.concurrency.point.application;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import chung.concurrency.support.ConcurrentTestExecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PointPessimisticServiceTest {
+
+    private static final Duration ADMISSION_TIMEOUT = Duration.ofSeconds(5L);
+
+    @Test
+    @DisplayName("허용 수를 정하지 않으면 풀 크기에서 예비 커넥션을 뺀 만큼만 진입시킨다")
+    void sizesAdmissionBelowPool() {
+        // when & then
+        assertThat(PointPessimisticService.admissionPermits(0, 10)).isEqualTo(8L);
+        assertThat(PointPessimisticService.admissionPermits(0, 2)).isEqualTo(1L);
+        assertThat(PointPessimisticService.admissionPermits(4, 10)).isEqualTo(4L);
+    }
+
+    @Test
+    @DisplayName("동시에 트랜잭션에 들어가는 호출 수는 허용 수를 넘지 않는다")
+    void boundsConcurrentTransactions() {
+        // given
+        ConcurrencyTrackingTransactionTemplate transactionTemplate = new ConcurrencyTrackingTransactionTemplate();
+        PointPessimisticService service = new PointPessimisticService(null, null, transactionTemplate, 2,
+            ADMISSION_TIMEOUT);
+
+        // when
+        ConcurrentTestExecutor.Result result = ConcurrentTestExecutor.run(8, () -> service.charge(1L, 100L));
+
+        // then
+        result.assertNoAsyncError();
+        assertThat(transactionTemplate.executions.get()).isEqualTo(8L);
+        assertThat(transactionTemplate.maxInFlight.get()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("진입 대기가 admission timeout을 넘기면 Busy로 거절하고 트랜잭션을 시작하지 않는다")
+    void rejectsAsBusyOnAdmissionTimeout() throws Exception {
+        // given
+        ConcurrencyTrackingTransactionTemplate transactionTemplate = new ConcurrencyTrackingTransactionTemplate();
+        transactionTemplate.blockUntilReleased();
+        PointPessimisticService service = new PointPessimisticService(null, null, transactionTemplate, 1,
+            Duration.ofMillis(50L));
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> service.charge(1L, 100L));
+        assertThat(transactionTemplate.entered.await(1, TimeUnit.SECONDS)).isTrue();
+
+        // when & then
+        assertThatThrownBy(() -> service.charge(1L, 100L)).isInstanceOf(PointConcurrencyBusyException.class);
+        assertThat(transactionTemplate.executions.get()).isEqualTo(1L);
+
+        transactionTemplate.release.countDown();
+        holder.get(1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 콜백을 실행하지 않고 동시에 몇 개의 트랜잭션이 열려 있었는지만 셉니다.
+     */
+    private static class ConcurrencyTrackingTransactionTemplate extends TransactionTemplate {
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+        private final AtomicInteger executions = new AtomicInteger();
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private volatile boolean blocking;
+
+        void blockUntilReleased() {
+            blocking = true;
+        }
+
+        @Override
+        public <T> T execute(TransactionCallback<T> action) {
+            executions.incrementAndGet();
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            entered.countDown();
+            try {
+                if (blocking) {
+                    release.await(5, TimeUnit.SECONDS);
+                } else {
+                    Thread.sleep(50L);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package chung.concurrency.point.application;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProcessingDelayTest {
+
+    @Test
+    @DisplayName("suspend한 스레드에서만 처리 지연을 건너뛰고, 다른 스레드와 close 이후에는 다시 기다린다")
+    void skipsDelayOnlyOnSuspendedThread() throws Exception {
+        // given
+        long suspendedNanos;
+        long otherThreadNanos;
+        try (ProcessingDelay.Suspension ignored = ProcessingDelay.suspend()) {
+            // when
+            suspendedNanos = timeSimulate();
+            otherThreadNanos = CompletableFuture.supplyAsync(ProcessingDelayTest::timeSimulate).get(1, TimeUnit.SECONDS);
+        }
+        long resumedNanos = timeSimulate();
+
+        // then
+        assertThat(suspendedNanos).isLessThan(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(otherThreadNanos).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(200));
+        assertThat(resumedNanos).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(200));
+    }
+
+    @Test
+    @DisplayName("겹쳐 suspend해도 바깥 suspend가 close될 때까지 지연을 건너뛴다")
+    void keepsOuterSuspensionWhenNested() {
+        // given
+        long nestedNanos;
+        try (ProcessingDelay.Suspension outer = ProcessingDelay.suspend()) {
+            try (ProcessingDelay.Suspension inner = ProcessingDelay.suspend()) {
+                timeSimulate();
+            }
+            // when
+            nestedNanos = timeSimulate();
+        }
+
+        // then
+        assertThat(nestedNanos).isLessThan(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(ProcessingDelay.isSuspended()).isFalse();
+    }
+
+    private static long timeSimulate() {
+        long startedAt = System.nanoTime();
+        ProcessingDelay.simulate();
+        return System.nanoTime() - startedAt;
+    }
+}
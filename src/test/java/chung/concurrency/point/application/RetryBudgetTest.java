@@ -0,0 +1,93 @@
+package chung.concurrency.point.application;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetryBudgetTest {
+
+    @Test
+    @DisplayName("포인트별 예산을 다 쓰면 성공이 쌓이기 전까지 재시도를 거절한다")
+    void rejectsRetryWhenPointBudgetIsExhausted() {
+        // given
+        AtomicLong clock = new AtomicLong();
+        RetryBudget budget = new RetryBudget(0.5, 0.0, 100.0, 2.0, clock::get);
+
+        // when & then
+        assertThat(budget.tryAcquireRetry(1L)).isTrue();
+        assertThat(budget.tryAcquireRetry(1L)).isTrue();
+        assertThat(budget.tryAcquireRetry(1L)).isFalse();
+        assertThat(budget.tryAcquireRetry(2L)).isTrue();
+
+        budget.onSuccess(1L, 1);
+        assertThat(budget.tryAcquireRetry(1L)).isFalse();
+        budget.onSuccess(1L, 1);
+        assertThat(budget.tryAcquireRetry(1L)).isTrue();
+    }
+
+    @Test
+    @DisplayName("전역 예산이 바닥나면 다른 포인트의 재시도도 막고 포인트 토큰은 돌려준다")
+    void globalBudgetCapsAllPoints() {
+        // given
+        AtomicLong clock = new AtomicLong();
+        RetryBudget budget = new RetryBudget(1.0, 0.0, 1.0, 1.0, clock::get);
+
+        // when & then
+        assertThat(budget.tryAcquireRetry(1L)).isTrue();
+        assertThat(budget.tryAcquireRetry(2L)).isFalse();
+        budget.onSuccess(1L, 1);
+        assertThat(budget.tryAcquireRetry(2L)).isTrue();
+    }
+
+    @Test
+    @DisplayName("성공이 없어도 초당 최소 재시도량만큼은 시간이 지나면 회복된다")
+    void refillsMinimumRetriesOverTime() {
+        // given
+        AtomicLong clock = new AtomicLong();
+        RetryBudget budget = new RetryBudget(0.0, 2.0, 10.0, 1.0, clock::get);
+        assertThat(budget.tryAcquireRetry(1L)).isTrue();
+        assertThat(budget.tryAcquireRetry(1L)).isFalse();
+
+        // when
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+
+        // then
+        assertThat(budget.tryAcquireRetry(1L)).isTrue();
+    }
+
+    @Test
+    @DisplayName("추적 한도를 넘으면 가득 찬 버킷만 버리고, 예산을 소진한 포인트는 유지한다")
+    void evictsFullBucketsButKeepsExhaustedOnes() {
+        // given
+        AtomicLong clock = new AtomicLong();
+        RetryBudget budget = new RetryBudget(0.0, 0.0, 100.0, 1.0, 2, clock::get);
+        assertThat(budget.tryAcquireRetry(1L)).isTrue();
+        budget.onSuccess(2L, 1);
+
+        // when
+        assertThat(budget.tryAcquireRetry(3L)).isTrue();
+
+        // then
+        assertThat(budget.tryAcquireRetry(1L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("오래 쓰이지 않은 버킷은 소진됐더라도 추적 한도를 넘을 때 버린다")
+    void evictsIdleBuckets() {
+        // given
+        AtomicLong clock = new AtomicLong();
+        RetryBudget budget = new RetryBudget(0.0, 0.0, 100.0, 1.0, 1, clock::get);
+        assertThat(budget.tryAcquireRetry(1L)).isTrue();
+
+        // when
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        assertThat(budget.tryAcquireRetry(2L)).isTrue();
+
+        // then
+        assertThat(budget.tryAcquireRetry(1L)).isTrue();
+    }
+}
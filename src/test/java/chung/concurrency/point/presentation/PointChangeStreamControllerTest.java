@@ -0,0 +1,126 @@
+package chung.concurrency.point.presentation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import chung.concurrency.point.application.PointChangeRelay;
+import chung.concurrency.point.domain.PointChangeEvent;
+import chung.concurrency.point.domain.PointChangeEventRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PointChangeStreamControllerTest {
+
+    private static final long POINT_ID = 12L;
+    private static final long AWAIT_TIMEOUT_MILLIS = 10_000L;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private PointChangeEventRepository pointChangeEventRepository;
+
+    @Autowired
+    private PointChangeRelay pointChangeRelay;
+
+    private MockMvc mockMvc;
+    private final List<Long> eventIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        for (long version = 1; version <= 3; version++) {
+            eventIds.add(save(version));
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(AWAIT_TIMEOUT_MILLIS);
+        while (pointChangeRelay.watermark() < eventIds.get(2) && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(20);
+        }
+        assertThat(pointChangeRelay.watermark()).isGreaterThanOrEqualTo(eventIds.get(2));
+    }
+
+    @Test
+    @DisplayName("Last-Event-ID 헤더를 보내면 그 다음 이벤트부터 이어 받는다")
+    void resumesAfterLastEventIdHeader() throws Exception {
+        // when
+        MvcResult result = mockMvc.perform(get("/points/changes").header("Last-Event-ID", eventIds.get(0)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        // then
+        String body = awaitEvent(result, eventIds.get(2));
+        assertThat(body).doesNotContain(idLine(eventIds.get(0)));
+        assertThat(body).contains(idLine(eventIds.get(1)), "event:point-changed");
+    }
+
+    @Test
+    @DisplayName("after 파라미터로도 이어 받을 수 있고, Last-Event-ID가 있으면 그쪽을 따른다")
+    void resumesAfterQueryParameter() throws Exception {
+        // when
+        MvcResult byParameter = mockMvc.perform(get("/points/changes").param("after", eventIds.get(1).toString()))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        MvcResult byBoth = mockMvc.perform(get("/points/changes")
+                .header("Last-Event-ID", eventIds.get(1))
+                .param("after", eventIds.get(0).toString()))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        // then
+        assertThat(awaitEvent(byParameter, eventIds.get(2)))
+            .doesNotContain(idLine(eventIds.get(0)), idLine(eventIds.get(1)));
+        assertThat(awaitEvent(byBoth, eventIds.get(2)))
+            .doesNotContain(idLine(eventIds.get(0)), idLine(eventIds.get(1)));
+    }
+
+    @Test
+    @DisplayName("재개 위치가 없으면 구독 이후의 변경만 받는다")
+    void streamsOnlyNewChangesWithoutResumePosition() throws Exception {
+        // given
+        MvcResult result = mockMvc.perform(get("/points/changes"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        // when
+        long newEventId = save(4L);
+
+        // then
+        String body = awaitEvent(result, newEventId);
+        assertThat(body).doesNotContain(idLine(eventIds.get(2)));
+    }
+
+    private long save(long version) {
+        return pointChangeEventRepository.save(new PointChangeEvent(POINT_ID, 100L, version * 100L, version)).getId();
+    }
+
+    private static String awaitEvent(MvcResult result, long eventId) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(AWAIT_TIMEOUT_MILLIS);
+        String body = result.getResponse().getContentAsString();
+        while (!body.contains(idLine(eventId)) && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(20);
+            body = result.getResponse().getContentAsString();
+        }
+        assertThat(body).contains(idLine(eventId));
+        return body;
+    }
+
+    private static String idLine(long eventId) {
+        return "id:" + eventId + "\n";
+    }
+}
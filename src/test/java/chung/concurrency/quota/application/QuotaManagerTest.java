@@ -0,0 +1,184 @@
+package chung.concurrency.quota.application;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QuotaManagerTest {
+
+    private static final QuotaScope TENANT = QuotaScope.tenant("acme");
+    private static final Instant NOON = Instant.parse("2026-10-19T12:00:00Z");
+
+    @Test
+    @DisplayName("chunk를 한 번 예약하면 그 안의 차감은 DB에 가지 않는다")
+    void consumesLocalChunkWithoutLedger() {
+        // given
+        InMemoryLedger ledger = new InMemoryLedger();
+        ledger.limits.put(TENANT.key(), 1_000L);
+        QuotaManager manager = new QuotaManager(ledger, 100L, Duration.ofSeconds(30), new MutableClock(NOON));
+
+        // when
+        for (int i = 0; i < 10; i++) {
+            assertThat(manager.tryAcquire(TENANT, 10L)).isTrue();
+        }
+
+        // then
+        assertThat(ledger.reserveCalls).isEqualTo(1);
+        assertThat(manager.reservedChunkCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("남은 한도가 chunk보다 작으면 남은 만큼만 쓰고, 그 뒤로는 거절한다")
+    void rejectsOnceLimitIsReserved() {
+        // given
+        InMemoryLedger ledger = new InMemoryLedger();
+        ledger.limits.put(TENANT.key(), 250L);
+        QuotaManager manager = new QuotaManager(ledger, 100L, Duration.ofSeconds(30), new MutableClock(NOON));
+
+        // when
+        int acquired = 0;
+        for (int i = 0; i < 30; i++) {
+            if (manager.tryAcquire(TENANT, 10L)) {
+                acquired++;
+            }
+        }
+
+        // then
+        assertThat(acquired).isEqualTo(25);
+        assertThat(ledger.reserved.get(TENANT.key())).isEqualTo(250L);
+    }
+
+    @Test
+    @DisplayName("lease가 끝나면 쓰지 않은 chunk를 반납해 다른 노드가 쓸 수 있게 한다")
+    void releasesUnusedChunkAfterLease() {
+        // given
+        InMemoryLedger ledger = new InMemoryLedger();
+        ledger.limits.put(TENANT.key(), 1_000L);
+        MutableClock clock = new MutableClock(NOON);
+        QuotaManager manager = new QuotaManager(ledger, 100L, Duration.ofSeconds(30), clock);
+        manager.tryAcquire(TENANT, 30L);
+
+        // when
+        clock.advance(Duration.ofSeconds(31));
+        manager.releaseExpired();
+
+        // then
+        assertThat(ledger.reserved.get(TENANT.key())).isEqualTo(30L);
+    }
+
+    @Test
+    @DisplayName("한도 행이 없는 scope는 제한 없이 통과시킨다")
+    void passesScopesWithoutLimit() {
+        // given
+        InMemoryLedger ledger = new InMemoryLedger();
+        QuotaManager manager = new QuotaManager(ledger, 100L, Duration.ofSeconds(30), new MutableClock(NOON));
+
+        // when & then
+        assertThat(manager.tryAcquire(TENANT, 1_000_000L)).isTrue();
+        assertThat(manager.tryAcquire(TENANT, 1_000_000L)).isTrue();
+        assertThat(ledger.reserveCalls).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("DB가 거절한 scope는 lease가 끝나거나 한도가 바뀔 때까지 DB에 다시 묻지 않는다")
+    void cachesRejectionUntilLeaseEndsOrLimitChanges() {
+        // given
+        InMemoryLedger ledger = new InMemoryLedger();
+        ledger.limits.put(TENANT.key(), 100L);
+        MutableClock clock = new MutableClock(NOON);
+        QuotaManager manager = new QuotaManager(ledger, 100L, Duration.ofSeconds(30), clock);
+        assertThat(manager.tryAcquire(TENANT, 100L)).isTrue();
+        assertThat(manager.tryAcquire(TENANT, 10L)).isFalse();
+        int reserveCallsAfterRejection = ledger.reserveCalls;
+
+        // when & then
+        for (int i = 0; i < 10; i++) {
+            assertThat(manager.tryAcquire(TENANT, 10L)).isFalse();
+        }
+        assertThat(ledger.reserveCalls).isEqualTo(reserveCallsAfterRejection);
+
+        assertThat(manager.tryAcquire(TENANT, 5L)).isFalse();
+        assertThat(ledger.reserveCalls).isEqualTo(reserveCallsAfterRejection + 1);
+
+        clock.advance(Duration.ofSeconds(31));
+        assertThat(manager.tryAcquire(TENANT, 10L)).isFalse();
+        assertThat(ledger.reserveCalls).isEqualTo(reserveCallsAfterRejection + 2);
+
+        manager.defineDailyLimit(TENANT, 200L);
+        assertThat(manager.tryAcquire(TENANT, 10L)).isTrue();
+        assertThat(ledger.reserveCalls).isEqualTo(reserveCallsAfterRejection + 3);
+    }
+
+    private static final class InMemoryLedger extends QuotaLedger {
+
+        private final Map<String, Long> limits = new HashMap<>();
+        private final Map<String, Long> reserved = new HashMap<>();
+        private int reserveCalls;
+
+        private InMemoryLedger() {
+            super(null);
+        }
+
+        @Override
+        public synchronized long reserve(String scopeKey, LocalDate day, long preferredAmount, long minimumAmount) {
+            reserveCalls++;
+            Long limit = limits.get(scopeKey);
+            if (limit == null) {
+                return UNLIMITED;
+            }
+            long remaining = limit - reserved.getOrDefault(scopeKey, 0L);
+            long granted = remaining >= preferredAmount ? preferredAmount
+                : remaining >= minimumAmount ? remaining : 0L;
+            reserved.merge(scopeKey, granted, Long::sum);
+            return granted;
+        }
+
+        @Override
+        public synchronized void defineDailyLimit(String scopeKey, long dailyLimit, LocalDate today) {
+            limits.put(scopeKey, dailyLimit);
+        }
+
+        @Override
+        public synchronized void release(String scopeKey, LocalDate day, long amount) {
+            reserved.merge(scopeKey, -amount, Long::sum);
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package chung.concurrency.quota.application;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import chung.concurrency.support.ConcurrentTestExecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StripedQuotaCounterTest {
+
+    @Test
+    @DisplayName("여러 스레드가 동시에 차감해도 넣어 둔 양을 넘겨 차감하지 않는다")
+    void neverConsumesMoreThanAdded() {
+        // given
+        StripedQuotaCounter counter = new StripedQuotaCounter(8);
+        counter.add(1_000L);
+        AtomicInteger consumed = new AtomicInteger();
+
+        // when
+        ConcurrentTestExecutor.run(32, () -> {
+            for (int i = 0; i < 100; i++) {
+                if (counter.tryConsume(1L) || tryGathered(counter)) {
+                    consumed.incrementAndGet();
+                }
+            }
+        }).assertNoAsyncError();
+
+        // then
+        assertThat(consumed.get()).isEqualTo(1_000);
+        assertThat(counter.sum()).isZero();
+    }
+
+    @Test
+    @DisplayName("잔량이 여러 칸에 흩어져 있으면 모아서 차감하고, 모자라면 아무것도 차감하지 않는다")
+    void gathersStripesBeforeGivingUp() throws InterruptedException {
+        // given
+        StripedQuotaCounter counter = new StripedQuotaCounter(4);
+        counter.add(30L);
+        Thread other = new Thread(() -> counter.add(30L));
+        other.start();
+        other.join();
+
+        // when & then
+        assertThat(counter.tryConsumeGathered(100L)).isFalse();
+        assertThat(counter.sum()).isEqualTo(60L);
+        assertThat(counter.tryConsumeGathered(50L)).isTrue();
+        assertThat(counter.drain()).isEqualTo(10L);
+    }
+
+    private static synchronized boolean tryGathered(StripedQuotaCounter counter) {
+        return counter.tryConsumeGathered(1L);
+    }
+}
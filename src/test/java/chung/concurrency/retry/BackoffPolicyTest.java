@@ -0,0 +1,117 @@
+package chung.concurrency.retry;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BackoffPolicyTest {
+
+    private static final long BASE_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+    private static final long MAX_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+    @Test
+    @DisplayName("decorrelated jitter는 매번 [base, 직전 대기 × 3] 안에서 고르고 max를 넘지 않는다")
+    void decorrelatedJitterStaysWithinRange() {
+        // given
+        BackoffPolicy.Backoff backoff = BackoffPolicy.decorrelatedJitter(
+            Duration.ofNanos(BASE_NANOS), Duration.ofNanos(MAX_NANOS)).newBackoff();
+        long previous = BASE_NANOS;
+
+        for (int i = 0; i < 1_000; i++) {
+            // when
+            long delay = backoff.nextDelayNanos();
+
+            // then
+            assertThat(delay).isGreaterThanOrEqualTo(BASE_NANOS);
+            assertThat(delay).isLessThanOrEqualTo(Math.min(MAX_NANOS, previous * 3));
+            previous = delay;
+        }
+    }
+
+    @Test
+    @DisplayName("지터 없는 지수 백오프는 두 배씩 늘다가 max에서 멈춘다")
+    void exponentialIsCappedAtMax() {
+        // given
+        BackoffPolicy.Backoff backoff = BackoffPolicy.exponential(
+            Duration.ofMillis(10), Duration.ofMillis(100)).newBackoff();
+
+        // when & then
+        long[] expectedMillis = {10, 20, 40, 80, 100, 100};
+        for (long expected : expectedMillis) {
+            assertThat(backoff.nextDelayNanos()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(expected));
+        }
+    }
+
+    @Test
+    @DisplayName("깨어날 시점이 deadline을 넘으면 잠들지 않고 false를 반환한다")
+    void stopsBeforeDeadline() throws InterruptedException {
+        // given
+        BackoffPolicy.Backoff backoff = BackoffPolicy.exponential(
+            Duration.ofMillis(500), Duration.ofMillis(500)).newBackoff();
+        long startedAt = System.nanoTime();
+
+        // when
+        boolean slept = backoff.sleepBefore(startedAt + TimeUnit.MILLISECONDS.toNanos(100));
+
+        // then
+        assertThat(slept).isFalse();
+        assertThat(System.nanoTime() - startedAt).isLessThan(TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    @DisplayName("deadline 안에 깨어날 수 있으면 대기 시간만큼 잠든 뒤 true를 반환한다")
+    void sleepsWhenDeadlineAllows() throws InterruptedException {
+        // given
+        BackoffPolicy.Backoff backoff = BackoffPolicy.exponential(
+            Duration.ofMillis(5), Duration.ofMillis(5)).newBackoff();
+        long startedAt = System.nanoTime();
+
+        // when
+        boolean slept = backoff.sleepBefore(startedAt + TimeUnit.SECONDS.toNanos(1));
+
+        // then
+        assertThat(slept).isTrue();
+        assertThat(System.nanoTime() - startedAt).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(5));
+    }
+
+    @Test
+    @DisplayName("적응형 정책의 base는 보호 구간 지연의 EWMA(α = 1/8)를 따르고 [min, max]로 잘린다")
+    void adaptiveBaseFollowsLatency() {
+        // given
+        AdaptiveBackoffPolicy policy = new AdaptiveBackoffPolicy(BASE_NANOS, MAX_NANOS);
+        assertThat(policy.baseNanos()).isEqualTo(BASE_NANOS);
+
+        // when
+        policy.recordLatency(TimeUnit.MILLISECONDS.toNanos(80));
+        long firstSample = policy.baseNanos();
+        policy.recordLatency(TimeUnit.MILLISECONDS.toNanos(160));
+        long smoothed = policy.baseNanos();
+        policy.recordLatency(0L);
+
+        // then
+        assertThat(firstSample).isEqualTo(TimeUnit.MILLISECONDS.toNanos(80));
+        assertThat(smoothed).isEqualTo(TimeUnit.MILLISECONDS.toNanos(90));
+        assertThat(policy.baseNanos()).isEqualTo(smoothed);
+        assertThat(policy.newBackoff().nextDelayNanos()).isGreaterThanOrEqualTo(smoothed);
+
+        for (int i = 0; i < 200; i++) {
+            policy.recordLatency(TimeUnit.SECONDS.toNanos(10));
+        }
+        assertThat(policy.baseNanos()).isEqualTo(MAX_NANOS);
+    }
+
+    @Test
+    @DisplayName("base가 0 이하이거나 max가 base보다 작으면 만들 수 없다")
+    void rejectsInvalidRange() {
+        // when & then
+        assertThatThrownBy(() -> BackoffPolicy.decorrelatedJitter(Duration.ZERO, Duration.ofMillis(10)))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BackoffPolicy.adaptive(Duration.ofMillis(10), Duration.ofMillis(5)))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,208 @@
+package chung.concurrency.support;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import chung.concurrency.ConcurrencyApplication;
+import chung.concurrency.point.application.PointChargeStrategies;
+
+/**
+ * 한 프로세스 안에 애플리케이션 컨텍스트 N개를 서로 다른 포트로 띄워, 같은 DB를 공유하는 N대의 인스턴스처럼 다룹니다.
+ * <p>
+ * 컨텍스트마다 빈(JVM 락, 커넥션 풀, 파티션 스레드)이 따로 만들어지므로 JVM 안에서만 직렬화하는 전략은
+ * 실제 다중 인스턴스와 같은 이유로 직렬화가 깨져 version 충돌로 실패합니다. 분산 락은 공유 DB의 락 테이블({@code lock.backend=jdbc})을 씁니다.
+ * 기본 DB는 같은 JVM 안에서 공유되는 H2 메모리 DB이며, {@code -Dcluster.jdbc-url}(및 username/password)로
+ * docker compose의 MySQL 같은 외부 DB를 지정할 수 있습니다.
+ */
+public final class ClusterHarness implements AutoCloseable {
+
+    public static final String JDBC_URL_PROPERTY = "cluster.jdbc-url";
+    public static final String USERNAME_PROPERTY = "cluster.username";
+    public static final String PASSWORD_PROPERTY = "cluster.password";
+
+    private static final String DEFAULT_JDBC_URL = "jdbc:h2:mem:cluster;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+    private final List<URI> baseUris = new ArrayList<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+
+    private ClusterHarness(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 노드를 순서대로 띄웁니다. 첫 노드만 스키마를 만들고(ddl-auto=update) 나머지는 그대로 씁니다.
+     */
+    public static ClusterHarness start(int nodeCount) {
+        String url = System.getProperty(JDBC_URL_PROPERTY, DEFAULT_JDBC_URL);
+        String username = System.getProperty(USERNAME_PROPERTY, isH2(url) ? "sa" : "appuser");
+        String password = System.getProperty(PASSWORD_PROPERTY, isH2(url) ? "" : "apppass");
+        ClusterHarness harness =
+            new ClusterHarness(new JdbcTemplate(new DriverManagerDataSource(url, username, password)));
+        try {
+            for (int i = 0; i < nodeCount; i++) {
+                harness.startNode(i, url, username, password);
+            }
+        } catch (RuntimeException e) {
+            harness.close();
+            throw e;
+        }
+        return harness;
+    }
+
+    private void startNode(int index, String url, String username, String password) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("server.port", 0);
+        properties.put("spring.datasource.url", url);
+        properties.put("spring.datasource.username", username);
+        properties.put("spring.datasource.password", password);
+        properties.put("spring.datasource.driver-class-name", isH2(url) ? "org.h2.Driver" : "com.mysql.cj.jdbc.Driver");
+        properties.put("spring.jpa.database-platform",
+            isH2(url) ? "org.hibernate.dialect.H2Dialect" : "org.hibernate.dialect.MySQLDialect");
+        properties.put("spring.jpa.hibernate.ddl-auto", index == 0 ? "update" : "none");
+        properties.put("lock.backend", "jdbc");
+        properties.put("warmup.enabled", false);
+        properties.put("logging.level.org.hibernate.SQL", "WARN");
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ConcurrencyApplication.class)
+            .properties(properties)
+            .logStartupInfo(false)
+            .run();
+        nodes.add(context);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUris.add(URI.create("http://localhost:" + port));
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * 충전 API가 받는 전략 이름을 등록 순서대로 돌려줍니다. 노드마다 같은 {@link PointChargeStrategies}를 쓰므로 첫 노드에서 읽습니다.
+     */
+    public List<String> strategies() {
+        return List.copyOf(nodes.get(0).getBean(PointChargeStrategies.class).names());
+    }
+
+    /**
+     * 공유 DB의 포인트 행을 balance로 초기화합니다. 이전 실행의 outbox 이벤트는 건드리지 않습니다.
+     */
+    public void resetPoint(long pointId, long balance) {
+        jdbcTemplate.update("delete from points where id = ?", pointId);
+        jdbcTemplate.update("insert into points (id, balance, version, fence_token) values (?, ?, 0, 0)",
+            pointId, balance);
+    }
+
+    public long balanceOf(long pointId) {
+        return jdbcTemplate.queryForObject("select balance from points where id = ?", Long.class, pointId);
+    }
+
+    /**
+     * requests건의 충전을 concurrency개의 클라이언트 스레드로 앞쪽 nodeCount대 노드에 라운드 로빈으로 보냅니다.
+     * 나머지 노드는 떠 있지만 요청을 받지 않으므로, 한 번 띄운 클러스터로 여러 노드 수를 잴 수 있습니다.
+     */
+    public LoadResult drive(String strategy, int nodeCount, long pointId, long amount, int requests, int concurrency) {
+        if (nodeCount < 1 || nodeCount > baseUris.size()) {
+            throw new IllegalArgumentException("nodeCount must be within 1.." + baseUris.size() + ": " + nodeCount);
+        }
+        AtomicInteger next = new AtomicInteger();
+        Map<Integer, Integer> statusCounts = new ConcurrentHashMap<>();
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        long startedAt = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int c = 0; c < concurrency; c++) {
+                futures.add(clients.submit(() -> {
+                    int index;
+                    while ((index = next.getAndIncrement()) < requests) {
+                        int status = post(baseUris.get(index % nodeCount), strategy, pointId, amount);
+                        statusCounts.merge(status, 1, Integer::sum);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(REQUEST_TIMEOUT.toMillis() * requests, TimeUnit.MILLISECONDS);
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("load driver failed for strategy " + strategy, e);
+        } finally {
+            clients.shutdownNow();
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+        Map<Integer, Integer> statuses = statusCounts.entrySet().stream()
+            .sorted(Map.Entry.comparingByKey())
+            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, Integer::sum, LinkedHashMap::new));
+        return new LoadResult(strategy, nodeCount, requests, statuses, elapsedNanos);
+    }
+
+    private int post(URI baseUri, String strategy, long pointId, long amount) {
+        HttpRequest request = HttpRequest.newBuilder(
+                baseUri.resolve("/points/" + pointId + "/charge?amount=" + amount + "&strategy=" + strategy))
+            .timeout(REQUEST_TIMEOUT)
+            .POST(HttpRequest.BodyPublishers.noBody())
+            .build();
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while charging", e);
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    public void close() {
+        for (int i = nodes.size() - 1; i >= 0; i--) {
+            nodes.get(i).close();
+        }
+        nodes.clear();
+        baseUris.clear();
+    }
+
+    private static boolean isH2(String url) {
+        return url.startsWith("jdbc:h2:");
+    }
+
+    /**
+     * @param nodes        요청을 받은 노드 수
+     * @param statuses     HTTP 상태 코드별 응답 수 (-1은 연결 실패)
+     * @param elapsedNanos 첫 요청부터 마지막 응답까지 걸린 시간
+     */
+    public record LoadResult(String strategy, int nodes, int requests, Map<Integer, Integer> statuses,
+                             long elapsedNanos) {
+
+        public int succeeded() {
+            return statuses.getOrDefault(200, 0);
+        }
+
+        public double throughputPerSecond() {
+            return succeeded() / (elapsedNanos / 1_000_000_000.0);
+        }
+    }
+}
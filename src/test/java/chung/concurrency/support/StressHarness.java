@@ -0,0 +1,180 @@
+package chung.concurrency.support;
+
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import chung.concurrency.schedule.SchedulePoint;
+
+/**
+ * 같은 시나리오를 수백~수천 번 반복하며 드문 인터리빙을 찾아내는 스트레스 하네스입니다.
+ * <p>
+ * 반복마다 seed에서 스레드별 난수열을 만들고, 그 난수로 시작 시점을 어긋나게 하며
+ * {@link SchedulePoint} 지점마다 yield 또는 짧은 pause를 끼워 넣습니다.
+ * 실패하면 해당 반복의 seed를 메시지에 담아 {@code -Dstress.seed=<seed> -Dstress.iterations=1}로 다시 돌릴 수 있습니다.
+ * seed가 고정하는 것은 주입되는 교란의 순서와 길이이며 OS 스케줄러까지 고정하지는 않으므로,
+ * 재현이 잘 안 되면 같은 seed로 iterations를 늘려 돌립니다.
+ */
+public final class StressHarness {
+
+    public static final String SEED_PROPERTY = "stress.seed";
+    public static final String ITERATIONS_PROPERTY = "stress.iterations";
+
+    private static final long SEED_STRIDE = 0x9E3779B97F4A7C15L;
+    private static final int YIELD_PERCENT = 25;
+    private static final int PAUSE_PERCENT = 15;
+
+    private static final ThreadLocal<SplittableRandom> PERTURBATION = new ThreadLocal<>();
+
+    private StressHarness() {
+    }
+
+    /**
+     * 시나리오를 반복 실행합니다. 반복 횟수는 {@code stress.iterations}가 있으면 그 값을 씁니다.
+     *
+     * @param name      실패 메시지에 쓰일 시나리오 이름
+     * @param options   스레드 수, 기본 반복 횟수, 교란 크기
+     * @param scenarios 반복마다 새 상태로 시나리오를 만드는 팩토리
+     * @return 실행한 반복 횟수와 기준 seed
+     */
+    public static Report run(String name, Options options, Supplier<Scenario> scenarios) {
+        long baseSeed = Long.getLong(SEED_PROPERTY, ThreadLocalRandom.current().nextLong());
+        int iterations = Integer.getInteger(ITERATIONS_PROPERTY, options.iterations());
+        AtomicLong injectedPauses = new AtomicLong();
+        ExecutorService executorService = Executors.newFixedThreadPool(options.threads());
+        try (AutoCloseable ignored = SchedulePoint.install(point -> perturb(options, injectedPauses))) {
+            for (int iteration = 0; iteration < iterations; iteration++) {
+                long seed = baseSeed + iteration * SEED_STRIDE;
+                try {
+                    runIteration(executorService, options, scenarios.get(), seed);
+                } catch (Throwable failure) {
+                    throw new AssertionError(String.format(
+                        "stress scenario '%s' failed at iteration %d/%d, reproduce with -D%s=%d -D%s=1",
+                        name, iteration + 1, iterations, SEED_PROPERTY, seed, ITERATIONS_PROPERTY), failure);
+                }
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("failed to restore schedule hook", e);
+        } finally {
+            executorService.shutdownNow();
+        }
+        return new Report(iterations, baseSeed, injectedPauses.get());
+    }
+
+    private static void runIteration(ExecutorService executorService, Options options,
+        Scenario scenario, long seed) throws Exception {
+        Queue<Throwable> asyncErrors = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(options.threads());
+        for (int i = 0; i < options.threads(); i++) {
+            int threadIndex = i;
+            SplittableRandom random = new SplittableRandom(seed ^ ((threadIndex + 1) * SEED_STRIDE));
+            long startOffsetNanos = random.nextLong(options.maxStartOffsetNanos() + 1);
+            executorService.execute(() -> {
+                PERTURBATION.set(random);
+                try {
+                    start.await();
+                    LockSupport.parkNanos(startOffsetNanos);
+                    scenario.run(threadIndex);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    asyncErrors.add(e);
+                } catch (Throwable throwable) {
+                    asyncErrors.add(throwable);
+                } finally {
+                    PERTURBATION.remove();
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        if (!done.await(options.timeoutMillis(), TimeUnit.MILLISECONDS)) {
+            throw new IllegalStateException("iteration did not finish within " + options.timeoutMillis() + "ms");
+        }
+        if (!asyncErrors.isEmpty()) {
+            AssertionError error = new AssertionError("asynchronous error(s) occurred: " + asyncErrors.size());
+            asyncErrors.forEach(error::addSuppressed);
+            throw error;
+        }
+        scenario.verify();
+    }
+
+    /**
+     * 하네스 스레드에서만 동작합니다. 다른 스레드(reaper, relay 등)가 같은 지점을 지나가도 건드리지 않습니다.
+     */
+    private static void perturb(Options options, AtomicLong injectedPauses) {
+        SplittableRandom random = PERTURBATION.get();
+        if (random == null) {
+            return;
+        }
+        int roll = random.nextInt(100);
+        if (roll < YIELD_PERCENT) {
+            Thread.yield();
+        } else if (roll < YIELD_PERCENT + PAUSE_PERCENT) {
+            injectedPauses.incrementAndGet();
+            LockSupport.parkNanos(random.nextLong(options.maxPauseNanos()) + 1);
+        }
+    }
+
+    /**
+     * 한 번의 반복을 이루는 시나리오입니다. 반복마다 새로 만들어지므로 상태를 필드에 두어도 됩니다.
+     */
+    public interface Scenario {
+
+        /**
+         * threadIndex번째 스레드가 실행할 작업입니다.
+         */
+        void run(int threadIndex) throws Exception;
+
+        /**
+         * 모든 스레드가 끝난 뒤 불변식을 검사합니다. 위반하면 {@link AssertionError}를 던집니다.
+         */
+        void verify();
+    }
+
+    /**
+     * @param threads             반복마다 동시에 실행할 스레드 수
+     * @param iterations          기본 반복 횟수 ({@code stress.iterations}로 덮어쓸 수 있음)
+     * @param maxStartOffsetNanos 스레드별 시작 지연의 상한
+     * @param maxPauseNanos       schedule point에서 끼워 넣는 pause의 상한
+     * @param timeoutMillis       한 반복의 최대 실행 시간
+     */
+    public record Options(int threads, int iterations, long maxStartOffsetNanos, long maxPauseNanos,
+                          long timeoutMillis) {
+
+        private static final long DEFAULT_MAX_START_OFFSET_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+        private static final long DEFAULT_MAX_PAUSE_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+        private static final long DEFAULT_TIMEOUT_MILLIS = 5_000L;
+
+        public Options {
+            if (threads < 1 || iterations < 1 || maxPauseNanos < 1 || maxStartOffsetNanos < 0) {
+                throw new IllegalArgumentException("invalid stress options");
+            }
+        }
+
+        public static Options of(int threads, int iterations) {
+            return new Options(threads, iterations, DEFAULT_MAX_START_OFFSET_NANOS, DEFAULT_MAX_PAUSE_NANOS,
+                DEFAULT_TIMEOUT_MILLIS);
+        }
+
+        public Options withMaxPause(long maxPause, TimeUnit unit) {
+            return new Options(threads, iterations, maxStartOffsetNanos, unit.toNanos(maxPause), timeoutMillis);
+        }
+    }
+
+    /**
+     * @param iterations     실행한 반복 횟수
+     * @param baseSeed       첫 반복의 seed
+     * @param injectedPauses 주입한 pause 횟수 (교란이 실제로 일어났는지 확인용)
+     */
+    public record Report(int iterations, long baseSeed, long injectedPauses) {
+    }
+}
@@ -0,0 +1,76 @@
+package chung.concurrency.support;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import chung.concurrency.schedule.SchedulePoint;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StressHarnessTest {
+
+    @Test
+    @DisplayName("schedule point에서 끼워 넣은 교란으로 갱신 손실을 찾고 재현용 seed를 알려준다")
+    void reportsSeedOfLostUpdate() {
+        // given
+        StressHarness.Options options = StressHarness.Options.of(4, 200);
+
+        // when & then
+        assertThatThrownBy(() -> StressHarness.run("racy-counter", options, () -> new StressHarness.Scenario() {
+            private volatile long counter;
+
+            @Override
+            public void run(int threadIndex) {
+                long read = counter;
+                SchedulePoint.CHARGE_AFTER_READ.reach();
+                counter = read + 1;
+            }
+
+            @Override
+            public void verify() {
+                assertThat(counter).isEqualTo(4);
+            }
+        }))
+            .isInstanceOf(AssertionError.class)
+            .hasMessageContaining("racy-counter")
+            .hasMessageContaining("-Dstress.seed=")
+            .hasMessageContaining("-Dstress.iterations=1");
+    }
+
+    @Test
+    @DisplayName("불변식이 지켜지면 지정한 횟수만큼 반복하고 hook을 원래대로 되돌린다")
+    void runsAllIterationsAndRestoresHook() throws Exception {
+        // given
+        StressHarness.Options options = StressHarness.Options.of(4, 50);
+        AtomicLong runs = new AtomicLong();
+        AtomicLong outerHookCalls = new AtomicLong();
+        StressHarness.Report report;
+
+        // when
+        try (AutoCloseable ignored = SchedulePoint.install(point -> outerHookCalls.incrementAndGet())) {
+            report = StressHarness.run("atomic-counter", options, () -> new StressHarness.Scenario() {
+                private final AtomicLong counter = new AtomicLong();
+
+                @Override
+                public void run(int threadIndex) {
+                    SchedulePoint.CHARGE_AFTER_READ.reach();
+                    counter.incrementAndGet();
+                    runs.incrementAndGet();
+                }
+
+                @Override
+                public void verify() {
+                    assertThat(counter.get()).isEqualTo(4);
+                }
+            });
+            SchedulePoint.CHARGE_AFTER_READ.reach();
+        }
+
+        // then
+        assertThat(runs.get()).isEqualTo(report.iterations() * 4L);
+        assertThat(outerHookCalls.get()).isEqualTo(1);
+    }
+}
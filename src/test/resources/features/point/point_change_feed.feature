@@ -0,0 +1,10 @@
+Feature: 커밋된 충전을 outbox + SSE 변경 피드로 밀어준다
+  개발자로서
+  나는 하위 서비스가 points 테이블을 폴링하지 않고 잔액 변경을 push로 받길 원한다
+  그래야 폴링 간격만큼의 지연과 DB 스캔 부하 없이 변경을 따라갈 수 있다
+
+  Scenario: 전략과 관계없이 커밋된 충전이 포인트별 순서대로 스트리밍되고 오프셋에서 이어 받을 수 있다
+    Given 피드용 계좌가 초기 잔액 0원으로 존재한다
+    When 피드용 계좌에 synchronized, 비관적 락, 낙관적 락 전략으로 100원씩 충전한다
+    Then 변경 피드 구독자는 피드용 계좌의 이벤트 3건을 version 순서로 받는다
+    And 두 번째 이벤트 id에서 다시 구독하면 마지막 이벤트 1건만 받는다
@@ -0,0 +1,24 @@
+Feature: 요청 기한을 넘긴 충전은 락 대기와 트랜잭션을 붙잡지 않고 포기한다
+  운영자로서
+  나는 클라이언트가 이미 포기한 요청이 락 대기열과 행 락, 파티션 큐를 차지하지 않길 원한다
+  그래야 과부하에서도 기다리는 사람이 있는 요청이 처리량을 가져간다
+
+  Scenario: 다른 소유자가 락을 쥐고 있으면 기한 안에서만 기다리고 포기한다
+    Given Deadline 계좌가 초기 잔액 0원으로 존재한다
+    And 다른 소유자가 Deadline 계좌의 분산 락을 쥐고 있다
+    When 기한 300ms로 100원을 Redis 락 파사드로 충전한다
+    Then 충전은 기한 초과로 실패한다
+    And 기한 초과는 1000ms 안에 알려진다
+    And Deadline 최종 잔액은 0원이 된다
+
+  Scenario: 처리 도중 기한이 지나면 쓰지 않고 롤백한다
+    Given Deadline 계좌가 초기 잔액 0원으로 존재한다
+    When 기한 100ms로 100원을 비관적 락으로 충전한다
+    Then 충전은 기한 초과로 실패한다
+    And Deadline 최종 잔액은 0원이 된다
+
+  Scenario: 파티션 큐에서 기다리는 사이 기한이 지난 요청은 배치에 넣지 않는다
+    Given Deadline 계좌가 초기 잔액 0원으로 존재한다
+    When 기한 없는 100원 충전이 파티션에서 커밋되는 동안 기한 50ms로 200원을 Partitioned 실행기로 충전한다
+    Then 충전은 기한 초과로 실패한다
+    And Deadline 최종 잔액은 100원이 된다
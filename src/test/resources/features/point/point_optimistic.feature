@@ -21,3 +21,17 @@ Feature: Optimistic locking 서비스(지수 백오프 + 지터)를 이용한 
     And Optimistic 재시도 한도를 1회로 제한한다
     When 2명이 동시에 100원을 Optimistic 서비스로 충전한다
     Then Optimistic 전략은 혼잡 상태를 사용자에게 알린다
+
+  Scenario: 충돌률 서킷 브레이커가 열린 포인트는 재시도 없이 즉시 혼잡 알림을 반환한다
+    Given Optimistic 계좌가 초기 잔액 0원으로 존재한다
+    And Optimistic 충돌 서킷 브레이커가 열려 있다
+    When 2명이 동시에 100원을 Optimistic 서비스로 충전한다
+    Then Optimistic 전략은 혼잡 상태를 사용자에게 알린다
+    And Optimistic 잔액은 0원 그대로다
+
+  Scenario: merge-on-conflict 모드는 version 충돌 시 잠들지 않고 delta를 다시 적용해 모두 성공한다
+    Given Optimistic 계좌가 초기 잔액 0원으로 존재한다
+    And Optimistic 재시도 모니터링을 초기화한다
+    When 10명이 동시에 100원을 Optimistic merge 모드로 충전한다
+    Then Optimistic 최종 잔액은 1000원이 된다
+    And Optimistic 서비스는 최대 5회까지만 재시도한다
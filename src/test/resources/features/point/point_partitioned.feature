@@ -0,0 +1,10 @@
+Feature: 파티션 단일 writer 실행기를 이용한 포인트 충전 동시성 제어
+  개발자로서
+  나는 포인트 id별로 고정된 파티션 스레드가 충전을 직렬 처리하고 배치로 커밋하길 원한다
+  그래야 락 경합 없이 높은 동시성에서도 포인트 잔액이 일관되게 유지된다
+
+  Scenario: 64개의 동시 충전 요청이 파티션 스레드의 배치 커밋으로 모두 반영된다
+    Given Partitioned 계좌가 초기 잔액 0원으로 존재한다
+    When 64명이 동시에 100원을 Partitioned 실행기로 충전한다
+    Then Partitioned 최종 잔액은 6400원이 된다
+    And Partitioned 실행기는 8건 이하의 커밋으로 처리한다
@@ -0,0 +1,10 @@
+Feature: 잔액 조회를 레플리카로 분리하고 version 토큰으로 read-your-writes를 보장한다
+  개발자로서
+  나는 잔액 조회가 충전 전략과 같은 primary 커넥션을 두고 경쟁하지 않길 원한다
+  그래도 방금 충전한 사용자는 자신의 충전 결과를 바로 볼 수 있어야 한다
+
+  Scenario: 충전이 반환한 version 토큰으로 조회하면 방금 충전한 잔액을 읽는다
+    Given 조회용 계좌가 초기 잔액 500원으로 존재한다
+    When 조회용 계좌에 100원을 충전하고 version 토큰을 받는다
+    Then version 토큰으로 조회한 잔액은 600원이다
+    And 토큰 없이 readOnly로 조회한 잔액도 600원이다
@@ -0,0 +1,21 @@
+Feature: 테넌트/캠페인 일일 한도를 로컬 chunk로 검사하며 충전한다
+  개발자로서
+  나는 "오늘 적립 총액 ≤ X" 같은 테넌트/캠페인 한도를 충전마다 검사하고 싶다
+  그래도 한도 검사가 테넌트마다 또 하나의 hot row가 되어 DB 왕복을 늘려서는 안 된다
+
+  Scenario: 캠페인 한도를 넘는 충전은 거절되고 테넌트 한도는 되돌려진다
+    Given 한도 계좌가 초기 잔액 0원으로 존재한다
+    And 테넌트 "acme"의 일일 한도는 1000원이다
+    And 캠페인 "autumn"의 일일 한도는 600원이다
+    When 10명이 동시에 테넌트 "acme" 캠페인 "autumn"으로 100원을 충전한다
+    Then 한도 계좌 잔액은 600원이다
+    And 한도 초과로 거절된 충전은 4건이다
+    And 테넌트 "acme"의 남은 한도로 100원을 4번 더 받을 수 있고 그다음은 거절된다
+
+  Scenario: 한도가 넉넉하면 충전마다 DB에 가지 않고 로컬 chunk에서 차감한다
+    Given 한도 계좌가 초기 잔액 0원으로 존재한다
+    And 테넌트 "globex"의 일일 한도는 1000000원이다
+    And 캠페인 "winter"의 일일 한도는 1000000원이다
+    When 20명이 동시에 테넌트 "globex" 캠페인 "winter"으로 10원을 충전한다
+    Then 한도 계좌 잔액은 200원이다
+    And 한도 chunk 예약은 2회 이하로 일어난다
@@ -7,3 +7,11 @@ Feature: FakeRedisLock 기반 분산 락 파사드를 이용한 포인트 충전
     Given RedisLock 계좌가 초기 잔액 0원으로 존재한다
     When 10명이 동시에 100원을 Redis 락 파사드로 충전한다
     Then RedisLock 최종 잔액은 1000원이 된다
+
+  Scenario: lease가 만료된 이전 소유자의 늦은 쓰기는 fencing token으로 거절된다
+    Given RedisLock 계좌가 초기 잔액 0원으로 존재한다
+    When 이전 소유자가 lease 100ms로 락을 얻어 100원 충전 도중 멈춘다
+    And lease가 만료된 뒤 새 소유자가 100원을 Redis 락 파사드로 충전한다
+    And 멈췄던 이전 소유자가 깨어나 충전을 이어간다
+    Then 이전 소유자의 충전은 fencing token 검사로 거절된다
+    And RedisLock 최종 잔액은 100원이 된다
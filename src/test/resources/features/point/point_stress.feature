@@ -0,0 +1,9 @@
+Feature: 무작위 스케줄 스트레스 모드로 충전 불변식을 반복 검증한다
+  개발자로서
+  나는 몇 번의 동시 실행으로는 드러나지 않는 드문 인터리빙에서도 충전이 정합성을 지키길 원한다
+  그래서 같은 시나리오를 seed 기반 교란과 함께 여러 번 반복하고, 실패하면 그 seed로 다시 돌릴 수 있어야 한다
+
+  Scenario: Optimistic merge 모드 충전을 무작위 스케줄로 반복해도 잔액과 변경 이벤트는 성공한 충전의 합과 같다
+    Given 스트레스 계좌가 초기 잔액 0원으로 존재한다
+    When 4명이 100원씩 Optimistic merge 모드로 충전하는 시나리오를 무작위 스케줄로 30회 반복한다
+    Then 모든 반복에서 잔액과 변경 이벤트가 성공한 충전의 합과 일치한다
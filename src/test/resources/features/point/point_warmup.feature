@@ -0,0 +1,10 @@
+Feature: 부팅 예열은 모든 충전 전략을 거치되 흔적을 남기지 않는다
+  개발자로서
+  나는 배포 직후 첫 요청이 차가운 커넥션 풀과 JIT 때문에 느려지지 않길 원한다
+  그래도 예열용 충전이 실제 잔액이나 변경 피드에 섞여서는 안 된다
+
+  Scenario: 예열 후 scratch 포인트와 그 변경 이벤트가 남지 않는다
+    Given 예열 전 포인트 수와 마지막 변경 이벤트 id를 기록한다
+    When 부팅 예열을 실행한다
+    Then 예열 후 포인트 수는 그대로다
+    And 예열로 생긴 변경 이벤트는 남지 않는다